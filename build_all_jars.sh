@@ -8,34 +8,24 @@ set -e
 BASE_DIR=$(pwd)
 
 # -----------------------------
-# 1. Build weather-svc JAR
+# 1. Build all modules (server/pom.xml reactor: weather-common, weather-svc, weather-cache)
 # -----------------------------
-echo "Building weather-svc JAR..."
-cd "$BASE_DIR/server/weather-svc"
+echo "Building weather-common, weather-svc and weather-cache..."
+cd "$BASE_DIR/server"
 ./mvnw clean package -DskipTests
 
-SVC_JAR=$(ls target/*.jar | head -n 1)
-if [ -f "$SVC_JAR" ]; then
-    echo "✅ weather-svc JAR built: $SVC_JAR"
-else
-    echo "❌ Failed to build weather-svc JAR!"
-    exit 1
-fi
-
 # -----------------------------
-# 2. Build weather-cache JAR
+# 2. Check the service JARs
 # -----------------------------
-echo "Building weather-cache JAR..."
-cd "$BASE_DIR/server/weather-cache"
-./mvnw clean package -DskipTests
-
-CACHE_JAR=$(ls target/*.jar | head -n 1)
-if [ -f "$CACHE_JAR" ]; then
-    echo "✅ weather-cache JAR built: $CACHE_JAR"
-else
-    echo "❌ Failed to build weather-cache JAR!"
-    exit 1
-fi
+for SERVICE in weather-svc weather-cache; do
+    JAR=$(ls "$SERVICE"/target/*.jar | head -n 1)
+    if [ -f "$JAR" ]; then
+        echo "✅ $SERVICE JAR built: $JAR"
+    else
+        echo "❌ Failed to build $SERVICE JAR!"
+        exit 1
+    fi
+done
 
 # -----------------------------
 # Done
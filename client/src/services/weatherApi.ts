@@ -2,6 +2,20 @@ import { WeatherApiResponse } from '@/types/weather';
 
 const API_BASE_URL = 'http://localhost:8081/api/weather-cache';
 
+// Only the item fields the forecast components render, the rest of each 3-hour slot is not transferred
+const FORECAST_FIELDS = [
+  'main.temp',
+  'main.feels_like',
+  'main.temp_min',
+  'main.temp_max',
+  'main.humidity',
+  'main.pressure',
+  'weather.icon',
+  'weather.description',
+  'wind.speed',
+  'predictions',
+].join(',');
+
 export class WeatherError extends Error {
   public status?: number;
 
@@ -48,7 +62,7 @@ export class WeatherApiService {
 
   static async getForecast(city: string): Promise<WeatherApiResponse> {
     try {
-      const response = await fetch(`${API_BASE_URL}/forecast?city=${city}`, {
+      const response = await fetch(`${API_BASE_URL}/forecast?city=${city}&fields=${FORECAST_FIELDS}`, {
         method: 'GET',
         headers: {
           'accept': 'application/json',
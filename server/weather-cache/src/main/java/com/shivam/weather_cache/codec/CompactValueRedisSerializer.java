@@ -0,0 +1,91 @@
+package com.shivam.weather_cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Versioned value codec for Redis.
+ * Layout of a compact value: [MAGIC][VERSION][zstd frame of the Smile (binary JSON) encoded value]
+ * - Reads both compact values and legacy JSON values written by {@link GenericJackson2JsonRedisSerializer},
+ *   so old and new entries coexist during a rollout.
+ * - Writes compact values only when {@code compactWrites} is on (deploy readers first, then flip writes).
+ * - The zstd frame records the dictionary id; a value compressed with a dictionary this replica
+ *   does not have is treated as a cache miss instead of failing the request.
+ */
+@Slf4j
+public class CompactValueRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte VERSION_SMILE_ZSTD = 1;
+    private static final int HEADER_SIZE = 2;
+
+    private final GenericJackson2JsonRedisSerializer legacyJson = new GenericJackson2JsonRedisSerializer();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    private final boolean compactWrites;
+    private final int level;
+    private final ZstdDictCompress dictCompress;
+    private final ZstdDictDecompress dictDecompress;
+
+    /**
+     * @param compactWrites write compact values (false = legacy JSON, reads accept both)
+     * @param level         zstd compression level
+     * @param dictionary    trained zstd dictionary, null to compress without one
+     */
+    public CompactValueRedisSerializer(boolean compactWrites, int level, byte[] dictionary) {
+        this.compactWrites = compactWrites;
+        this.level = level;
+        this.dictCompress = dictionary != null ? new ZstdDictCompress(dictionary, level) : null;
+        this.dictDecompress = dictionary != null ? new ZstdDictDecompress(dictionary) : null;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) return new byte[0];
+        if (!compactWrites) return legacyJson.serialize(value);
+
+        try {
+            byte[] smile = smileMapper.writeValueAsBytes(value);
+            byte[] frame = dictCompress != null ? Zstd.compress(smile, dictCompress) : Zstd.compress(smile, level);
+
+            byte[] out = new byte[HEADER_SIZE + frame.length];
+            out[0] = MAGIC;
+            out[1] = VERSION_SMILE_ZSTD;
+            System.arraycopy(frame, 0, out, HEADER_SIZE, frame.length);
+            return out;
+        } catch (IOException ex) {
+            throw new SerializationException("Could not encode value as compact Smile+zstd", ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        if (bytes[0] != MAGIC) return legacyJson.deserialize(bytes);
+
+        if (bytes.length < HEADER_SIZE || bytes[1] != VERSION_SMILE_ZSTD) {
+            log.warn("Unknown compact value version {}, treating as cache miss", bytes.length > 1 ? bytes[1] : -1);
+            return null;
+        }
+
+        try {
+            byte[] frame = Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+            int size = (int) Zstd.getFrameContentSize(frame);
+            byte[] smile = dictDecompress != null ? Zstd.decompress(frame, dictDecompress, size) : Zstd.decompress(frame, size);
+            return smileMapper.readValue(smile, Object.class);
+        } catch (Exception ex) {
+            log.warn("Could not decode compact value ({}), treating as cache miss", ex.getMessage());
+            return null;
+        }
+    }
+}
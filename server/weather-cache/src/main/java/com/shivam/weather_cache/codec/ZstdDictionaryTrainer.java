@@ -0,0 +1,55 @@
+package com.shivam.weather_cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.ZstdDictTrainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Offline tool: trains the zstd dictionary used by {@link CompactValueRedisSerializer}.
+ * Samples are forecast responses saved as *.json files (e.g. curl of /api/weather-cache/forecast for city.csv).
+ * They are Smile encoded first, exactly like the codec does, so the dictionary matches the stored bytes.
+ *
+ * <pre>
+ * java -cp weather-cache.jar -Dloader.main=com.shivam.weather_cache.codec.ZstdDictionaryTrainer \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher &lt;samples-dir&gt; &lt;output.dict&gt; [dictSizeBytes]
+ * </pre>
+ */
+public class ZstdDictionaryTrainer {
+
+    private static final int DEFAULT_DICT_SIZE = 16 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ZstdDictionaryTrainer <samples-dir> <output.dict> [dictSizeBytes]");
+            System.exit(1);
+        }
+
+        Path samplesDir = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        int dictSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DICT_SIZE;
+
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(samplesDir)) {
+            files = stream.filter(p -> p.toString().endsWith(".json")).toList();
+        }
+
+        ZstdDictTrainer trainer = new ZstdDictTrainer(64 * 1024 * 1024, dictSize);
+        for (Path file : files) {
+            Object value = json.readValue(file.toFile(), Object.class);
+            trainer.addSample(smile.writeValueAsBytes(value));
+        }
+
+        byte[] dictionary = trainer.trainSamples();
+        Files.write(output, dictionary);
+        System.out.printf("Trained %d byte dictionary from %d samples → %s%n", dictionary.length, files.size(), output);
+    }
+}
@@ -1,16 +1,32 @@
 package com.shivam.weather_cache.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import com.shivam.weather_cache.utils.TokenBucket;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestInterceptor;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.ArrayList;
-import java.util.List;
-
+/**
+ * Blocking Weather SVC client stack (servlet mode only, the reactive mode uses the WebClient of ReactiveConfig)
+ * and the upstream budget of the background jobs (both modes).
+ */
 @Configuration
 @Slf4j
 public class AppConfig {
@@ -20,23 +36,95 @@ public class AppConfig {
     @Value("${rest_template_read_timeout}")
     private int readTimeout;
 
+    @Value("${http_client.max_total}")
+    private int maxTotal;
+    @Value("${http_client.max_per_route}")
+    private int maxPerRoute;
+    @Value("${http_client.connection_request_timeout}")
+    private long connectionRequestTimeout;
+    @Value("${http_client.idle_evict_seconds}")
+    private long idleEvictSeconds;
+
+    @Value("${batch.max_concurrency}")
+    private int batchMaxConcurrency;
+
+    @Value("${schedular.refresh_rate_per_min}")
+    private double refreshRatePerMin;
+    @Value("${schedular.refresh_burst}")
+    private int refreshBurst;
+
+    /**
+     * One upstream budget for all background SVC calls of this replica (scheduler refreshes and the warm-up),
+     * both run on the lease holder only, so together they stay below the weather-svc rate limit.
+     */
+    @Bean
+    public TokenBucket refreshPacer() {
+        return new TokenBucket(Math.max(1, refreshBurst), refreshRatePerMin / 60.0);
+    }
+
+    /**
+     * Keep-alive connection pool to the Weather SVC, shared by misses, batch requests and scheduled refreshes.
+     * All calls go to one route, so max_per_route is the effective limit.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public PoolingHttpClientConnectionManager weatherSvcConnectionManager() {
+        if (maxPerRoute < batchMaxConcurrency) {
+            log.warn("http_client.max_per_route={} is below batch.max_concurrency={}, batch misses will queue for connections",
+                    maxPerRoute, batchMaxConcurrency);
+        }
+        log.info("Weather SVC connection pool → maxTotal={}, maxPerRoute={}, connectTimeout={}ms, readTimeout={}ms",
+                maxTotal, maxPerRoute, connectTimeout, readTimeout);
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                // LIFO keeps a small hot set of connections alive, the rest idles out
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        // Re-check connections idle longer than this before reuse (server may have closed them)
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public CloseableHttpClient weatherSvcHttpClient(PoolingHttpClientConnectionManager weatherSvcConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(weatherSvcConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Max wait for a free pooled connection, fails fast instead of piling up behind a slow SVC
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+    }
+
+    /**
+     * Pool gauges: httpcomponents.httpclient.pool.total.connections{state=leased|available},
+     * ...pool.total.pending, ...pool.total.max, ...pool.route.max.default.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MeterBinder weatherSvcPoolMetrics(PoolingHttpClientConnectionManager weatherSvcConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(weatherSvcConnectionManager, "weather-svc");
+    }
+
+    /**
+     * Built from the Boot RestTemplateBuilder (adds http.client.requests observations).
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        //Factory with timeouts
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(connectTimeout); // 5 sec connection timeout
-        factory.setReadTimeout(readTimeout);    // 5 sec read timeout
-
-        RestTemplate restTemplate = new RestTemplate(factory);
-
-        //logging interceptor for debugging requests
-        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
-        interceptors.add((request, body, execution) -> {
-//            log.info("Calling URL: " + request.getURI());
-            return execution.execute(request, body);
-        });
-        restTemplate.setInterceptors(interceptors);
-
-        return restTemplate;
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public RestTemplate restTemplate(ObjectProvider<RestTemplateBuilder> builderProvider,
+                                     CloseableHttpClient weatherSvcHttpClient) {
+        return builderProvider.getIfAvailable(RestTemplateBuilder::new)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(weatherSvcHttpClient))
+                .build();
     }
 }
@@ -1,24 +1,37 @@
 package com.shivam.weather_cache.config;
 
+import com.shivam.weather_cache.codec.CompactValueRedisSerializer;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.SocketOptions;
 import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.resource.DefaultClientResources;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 
 @Configuration
@@ -37,8 +50,11 @@ public class RedisConfig {
     @Value("${spring.redis.password}")
     private String password;
 
-    @Value("${spring.redis.timeout}")
-    private long timeout;
+    @Value("${spring.redis.timeout_ms}")
+    private long timeoutMs;
+
+    @Value("${spring.redis.connect_timeout_ms}")
+    private long connectTimeoutMs;
 
     @Value("${spring.redis.lettuce.pool.max-active}")
     private int maxPoolActive;
@@ -49,10 +65,54 @@ public class RedisConfig {
     @Value("${spring.redis.lettuce.pool.max-idle}")
     private int maxPoolIdle;
 
+    @Value("${redis.value_codec}")
+    private String valueCodec;
+
+    @Value("${redis.value_codec.level}")
+    private int valueCodecLevel;
+
+    @Value("${redis.value_codec.dictionary}")
+    private String valueCodecDictionary;
+
+    /**
+     * Servlet mode: blocking commands borrow pooled connections (commons-pool2), one per request thread in flight.
+     */
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public LettuceConnectionFactory redisConnectionFactory() {
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(maxPoolActive);
+        poolConfig.setMaxIdle(maxPoolIdle);
+        poolConfig.setMinIdle(minPoolIdle);
+
+        return connectionFactory(LettucePoolingClientConfiguration.builder()
+                .poolConfig(poolConfig)
+                .commandTimeout(Duration.ofMillis(timeoutMs))
+                .clientResources(DefaultClientResources.create())
+                .clientOptions(clientOptions())
+                .build(), "pooled, maxActive=" + maxPoolActive);
+    }
+
+    /**
+     * Reactive mode: no pool, every command (reactive request path and the blocking background jobs alike)
+     * is multiplexed over the factory's one shared native connection.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public LettuceConnectionFactory sharedRedisConnectionFactory() {
+        LettuceConnectionFactory factory = connectionFactory(LettuceClientConfiguration.builder()
+                .commandTimeout(Duration.ofMillis(timeoutMs))
+                .clientResources(DefaultClientResources.create())
+                .clientOptions(clientOptions())
+                .build(), "shared connection");
+        factory.setShareNativeConnection(true);
+        return factory;
+    }
+
+    private LettuceConnectionFactory connectionFactory(LettuceClientConfiguration clientConfig, String mode) {
         try {
-            log.info("Initializing LettuceConnectionFactory → host={}, port={}, timeout={}s", host, port, timeout);
+            log.info("Initializing LettuceConnectionFactory → host={}, port={}, commandTimeout={}ms, connectTimeout={}ms, {}",
+                    host, port, timeoutMs, connectTimeoutMs, mode);
 
             RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
             config.setHostName(host);
@@ -60,24 +120,6 @@ public class RedisConfig {
             config.setPort(port);
             config.setPassword(password);
 
-            // 🔹 Pool config
-            GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
-            poolConfig.setMaxTotal(maxPoolActive);
-            poolConfig.setMaxIdle(maxPoolIdle);
-            poolConfig.setMinIdle(minPoolIdle);
-
-            LettucePoolingClientConfiguration clientConfig = LettucePoolingClientConfiguration.builder()
-                    .commandTimeout(Duration.ofSeconds(timeout))
-                    .poolConfig(poolConfig)
-                    .clientResources(DefaultClientResources.create())
-                    .clientOptions(ClientOptions.builder()
-                            .autoReconnect(true)
-                            .pingBeforeActivateConnection(true)
-                            .build())
-                    .build();
-
-
-
             LettuceConnectionFactory factory = new LettuceConnectionFactory(config, clientConfig);
             factory.afterPropertiesSet();
             log.info("Successfully connected to Redis at {}:{}", host, port);
@@ -93,8 +135,47 @@ public class RedisConfig {
         }
     }
 
+    /**
+     * Sub-second command timeout, a slow / down Redis trips RedisCircuitBreaker instead of stalling requests.
+     * No PING on connection activation, a dead connection fails its first command and counts as a failure.
+     */
+    private ClientOptions clientOptions() {
+        return ClientOptions.builder()
+                .autoReconnect(true)
+                .pingBeforeActivateConnection(false)
+                .socketOptions(SocketOptions.builder()
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                        .build())
+                // Fail commands right away while disconnected instead of queueing them until the timeout
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build();
+    }
+
+    /**
+     * Value codec for cached payloads.
+     * "compact" writes Smile + zstd (optionally with a trained dictionary), "json" writes legacy JSON.
+     * Both modes read both formats, so the switch can be rolled out replica by replica.
+     */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory connectionFactory) {
+    public RedisSerializer<Object> redisValueSerializer() throws IOException {
+        byte[] dictionary = null;
+        if (valueCodecDictionary != null && !valueCodecDictionary.isBlank()) {
+            Resource resource = new DefaultResourceLoader().getResource(valueCodecDictionary);
+            try (InputStream in = resource.getInputStream()) {
+                dictionary = in.readAllBytes();
+            }
+            log.info("Loaded zstd dictionary {} ({} bytes)", valueCodecDictionary, dictionary.length);
+        }
+
+        boolean compactWrites = "compact".equalsIgnoreCase(valueCodec);
+        log.info("Redis value codec → {} (level={}, dictionary={})", compactWrites ? "compact" : "json",
+                valueCodecLevel, dictionary != null);
+        return new CompactValueRedisSerializer(compactWrites, valueCodecLevel, dictionary);
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         try {
             template.setConnectionFactory(connectionFactory);
@@ -103,12 +184,12 @@ public class RedisConfig {
             template.setKeySerializer(new StringRedisSerializer());
             template.setHashKeySerializer(new StringRedisSerializer());
 
-            // Values as JSON (generic, no DTO needed)
-            template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+            // Values through the pluggable codec, meta hash values stay JSON (HINCRBY needs plain numbers)
+            template.setValueSerializer(redisValueSerializer);
             template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
 
             template.afterPropertiesSet();
-            log.info("RedisTemplate initialized successfully with JSON serializer");
+            log.info("RedisTemplate initialized successfully");
 
         } catch (DataAccessException ex) {
             log.error("RedisTemplate initialization failed due to DataAccessException", ex);
@@ -119,4 +200,58 @@ public class RedisConfig {
         }
         return template;
     }
+
+    /**
+     * Raw bytes template for pre-encoded response bodies, no (de)serialization on the hit path.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> bytesRedisTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Plain String template, used for pub/sub messages (near cache invalidation).
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(LettuceConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * Non-blocking template for the reactive mode, same key / value / meta hash serializers as {@link #redisTemplate}.
+     * Commands are multiplexed over the factory's shared native connection.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(LettuceConnectionFactory connectionFactory,
+                                                                       RedisSerializer<Object> redisValueSerializer) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(redisValueSerializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(new GenericJackson2JsonRedisSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveStringRedisTemplate reactiveStringRedisTemplate(LettuceConnectionFactory connectionFactory) {
+        return new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * Listener container for Redis pub/sub channels. Subscribers register themselves on startup.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(LettuceConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
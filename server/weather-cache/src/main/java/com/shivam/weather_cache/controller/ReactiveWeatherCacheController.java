@@ -0,0 +1,68 @@
+package com.shivam.weather_cache.controller;
+
+import com.shivam.weather_cache.dto.CacheValidators;
+import com.shivam.weather_cache.service.ReactiveWeatherCacheService;
+import com.shivam.weather_cache.utils.AppConstants;
+import com.shivam.weather_cache.utils.WeatherUtils;
+import com.shivam.weather_common.projection.ForecastProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive mode endpoint, same contract as {@link WeatherCacheController#getWeather} in object serve mode
+ * (conditional GETs, field projection and time window included).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/weather-cache")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWeatherCacheController {
+
+    private final ReactiveWeatherCacheService cacheService;
+
+    @GetMapping("/forecast")
+    public Mono<ResponseEntity<Map<String, Object>>> getWeather(@RequestParam(name = "city", required = true) String city,
+                                                                @RequestParam(name = "fields", required = false) String fields,
+                                                                @RequestParam(name = "from", required = false) String from,
+                                                                @RequestParam(name = "to", required = false) String to,
+                                                                @RequestParam(name = "hours", required = false) Integer hours,
+                                                                @RequestHeader HttpHeaders requestHeaders) {
+        String trimmed = WeatherUtils.validateAndTrimCity(city);
+        ForecastProjection projection = ForecastProjection.of(fields, from, to, hours);
+        Instant now = Instant.now();
+
+        Mono<ResponseEntity<Map<String, Object>>> full = Mono.defer(() -> cacheService.getWeather(trimmed))
+                .map(result -> WeatherCacheController.withValidators(ResponseEntity.ok(), CacheValidators.projected(result.getValidators(), projection, now), false)
+                        .header(AppConstants.Headers.X_CACHE, result.getStatus().getHeaderValue())
+                        .body(projection.apply(result.getData(), now)));
+
+        // Conditional GET: answered from the entry meta, the value is never read
+        List<String> ifNoneMatch = WeatherCacheController.ifNoneMatch(requestHeaders);
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        if (ifNoneMatch.isEmpty() && ifModifiedSince < 0) {
+            return full;
+        }
+        // The lookup counts nothing, only the final outcome is counted: a 304 here, else the full read
+        return cacheService.getValidators(trimmed)
+                .flatMap(lookup -> {
+                    CacheValidators validators = CacheValidators.projected(lookup.getValidators(), projection, now);
+                    if (!validators.isNotModified(ifNoneMatch, ifModifiedSince)) {
+                        return Mono.empty();
+                    }
+                    cacheService.recordNotModified(trimmed, lookup);
+                    return Mono.just(WeatherCacheController.withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), validators, false)
+                            .header(AppConstants.Headers.X_CACHE, validators.getStatus().getHeaderValue())
+                            .<Map<String, Object>>build());
+                })
+                .switchIfEmpty(full);
+    }
+}
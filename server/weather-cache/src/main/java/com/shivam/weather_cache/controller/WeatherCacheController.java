@@ -1,36 +1,62 @@
 
 package com.shivam.weather_cache.controller;
 
+import com.shivam.weather_cache.dto.BatchForecastItem;
 import com.shivam.weather_cache.dto.CacheResult;
+import com.shivam.weather_cache.dto.CacheValidators;
+import com.shivam.weather_cache.dto.EncodedBody;
+import com.shivam.weather_cache.dto.CustomResponse;
+import com.shivam.weather_cache.dto.EncodedCacheResult;
+import com.shivam.weather_cache.dto.ValidatorLookup;
+import com.shivam.weather_cache.exception.BadRequestException;
 import com.shivam.weather_cache.service.WeatherCacheService;
+import com.shivam.weather_cache.utils.AppConstants;
+import com.shivam.weather_cache.utils.ResponseBodyEncoder;
 import com.shivam.weather_cache.utils.WeatherUtils;
+import com.shivam.weather_common.projection.ForecastProjection;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/weather-cache")
 public class WeatherCacheController {
 
     private final WeatherCacheService cacheService;
+    private final ResponseBodyEncoder bodyEncoder;
+
+    @Value("${batch.max_cities}")
+    private int batchMaxCities;
 
     @Operation(
             summary = "Get 3-hour weather forecast for a city",
-            description = "Fetches 3-hour weather forecast data for the specified city. Returns cached payload when available and includes an X-Cache header indicating HIT or MISS."
+            description = "Fetches 3-hour weather forecast data for the specified city. Returns cached payload when available and includes an X-Cache header indicating HIT, MISS or STALE (served past the soft TTL while a background refresh runs). In bytes serve mode the pre-encoded body is streamed, gzip encoded when the client accepts it. Responses carry ETag, Last-Modified and Cache-Control max-age, If-None-Match / If-Modified-Since are answered with 304 from the entry meta without reading the value. Optional fields / from / to / hours return a projection of the cached forecast (selected item fields, time window) instead of the full list."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Forecast fetched successfully",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = java.util.Map.class),
                             examples = @ExampleObject(value = "{\"success\":true,\"message\":\"Forecast fetched successfully\",\"data\":[{\"city\":\"Indore\",\"timestamp\":1690000000,\"temperature\":30.5,\"weather\":\"Clouds\"}]}"))),
+            @ApiResponse(responseCode = "304", description = "Not modified - the client's copy (If-None-Match / If-Modified-Since) is still current"),
             @ApiResponse(responseCode = "400", description = "Bad request - missing, empty, or invalid city",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                             examples = @ExampleObject(value = "{\"success\":false,\"message\":\"City must contain only English letters, spaces or hyphens\",\"data\":null}"))),
@@ -48,14 +74,126 @@ public class WeatherCacheController {
                             examples = @ExampleObject(value = "{\"success\":false,\"message\":\"Internal server error\",\"data\":null}")))
     })
     @GetMapping("/forecast")
-    public ResponseEntity<java.util.Map<String, Object>> getWeather(@RequestParam(name = "city", required = true) String city) {
+    public ResponseEntity<?> getWeather(@RequestParam(name = "city", required = true) String city,
+                                        @Parameter(description = "Comma separated item fields, dotted for nested ones, e.g. main.temp,weather.icon,wind.speed (dt_txt is always returned)")
+                                        @RequestParam(name = "fields", required = false) String fields,
+                                        @Parameter(description = "Window start: ISO date, date-time (UTC) or instant")
+                                        @RequestParam(name = "from", required = false) String from,
+                                        @Parameter(description = "Window end (exclusive): ISO date, date-time (UTC) or instant")
+                                        @RequestParam(name = "to", required = false) String to,
+                                        @Parameter(description = "Window length in hours, from 'from' or else from the current 3-hour slot")
+                                        @RequestParam(name = "hours", required = false) Integer hours,
+                                        @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                        @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders) {
         String trimmed = WeatherUtils.validateAndTrimCity(city);
+        ForecastProjection projection = ForecastProjection.of(fields, from, to, hours);
+        Instant now = Instant.now();
+        // Pre-encoded bytes hold the full forecast, projections are built from the decoded map
+        boolean encoded = bodyEncoder.isEnabled() && projection.isIdentity();
+
+        // Conditional GET: answered from the entry meta, the value is never read
+        List<String> ifNoneMatch = ifNoneMatch(requestHeaders);
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        if (!ifNoneMatch.isEmpty() || ifModifiedSince >= 0) {
+            // The lookup counts nothing, only the final outcome is counted: here a 304, below the full read
+            ValidatorLookup lookup = cacheService.getValidators(trimmed);
+            CacheValidators validators = lookup == null ? null : CacheValidators.projected(lookup.getValidators(), projection, now);
+            if (validators != null && validators.isNotModified(ifNoneMatch, ifModifiedSince)) {
+                cacheService.recordNotModified(trimmed, lookup);
+                boolean gzipped = encoded && bodyEncoder.isGzipEnabled() && acceptsGzip(acceptEncoding);
+                ResponseEntity.BodyBuilder notModified = withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), validators, gzipped)
+                        .header(AppConstants.Headers.X_CACHE, validators.getStatus().getHeaderValue());
+                if (encoded) {
+                    notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                return notModified.build();
+            }
+        }
+
+        if (encoded) {
+            return encodedResponse(cacheService.getWeatherEncoded(trimmed), acceptEncoding);
+        }
 
         CacheResult result = cacheService.getWeather(trimmed);
-        String headerValue = result.isCacheHit() ? "HIT" : "MISS";
 
-        return ResponseEntity.ok()
-                .header("X-Cache", headerValue)
-                .body(result.getData());
+        return withValidators(ResponseEntity.ok(), CacheValidators.projected(result.getValidators(), projection, now), false)
+                .header(AppConstants.Headers.X_CACHE, result.getStatus().getHeaderValue())
+                .body(projection.apply(result.getData(), now));
+    }
+
+    @Operation(
+            summary = "Get 3-hour weather forecasts for several cities",
+            description = "Comma separated list of cities (at most batch.max_cities). Hits are resolved with one Redis MGET, misses are fetched in parallel with bounded concurrency. Each city has its own status: HIT, MISS, STALE or ERROR (with errorCode and message), a failing city does not fail the batch."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the per-city status",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            examples = @ExampleObject(value = "{\"success\":true,\"message\":\"Weather forecast retrieved successfully.\",\"data\":[{\"city\":\"Indore\",\"status\":\"HIT\",\"errorCode\":null,\"message\":null,\"data\":{}},{\"city\":\"Atlantis\",\"status\":\"ERROR\",\"errorCode\":404,\"message\":\"City not found: Atlantis\",\"data\":null}]}"))),
+            @ApiResponse(responseCode = "400", description = "Bad request - no cities or more than batch.max_cities",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            examples = @ExampleObject(value = "{\"success\":false,\"message\":\"At most 50 cities per batch\",\"data\":null}")))
+    })
+    @GetMapping("/forecast/batch")
+    public ResponseEntity<CustomResponse<List<BatchForecastItem>>> getWeatherBatch(@RequestParam(name = "cities") List<String> cities) {
+        if (cities == null || cities.isEmpty()) {
+            throw new BadRequestException("At least one city is required");
+        }
+        if (cities.size() > batchMaxCities) {
+            throw new BadRequestException("At most " + batchMaxCities + " cities per batch");
+        }
+
+        List<BatchForecastItem> items = cacheService.getWeatherBatch(cities);
+        return ResponseEntity.ok(new CustomResponse<>(true, AppConstants.Messages.Success.FORECAST_SUCCESS, items));
+    }
+
+    /**
+     * Streams the stored body bytes as-is, gzip bodies are only inflated for clients without gzip support.
+     */
+    private ResponseEntity<byte[]> encodedResponse(EncodedCacheResult result, String acceptEncoding) {
+        EncodedBody body = result.getBody();
+        boolean clientAcceptsGzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder builder = withValidators(ResponseEntity.ok(), result.getValidators(), body.isGzipped() && clientAcceptsGzip)
+                .header(AppConstants.Headers.X_CACHE, result.getStatus().getHeaderValue())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        if (body.isGzipped() && clientAcceptsGzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getBytes());
+        }
+        return builder.body(body.isGzipped() ? ResponseBodyEncoder.gunzip(body.getBytes()) : body.getBytes());
+    }
+
+    /**
+     * ETag, Last-Modified and Cache-Control of an entry (200 and 304 alike).
+     * The ETag is the hash of the JSON, a gzip encoded body is a different representation so it gets the weak form
+     * (If-None-Match uses weak comparison, both forms still match).
+     */
+    static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, CacheValidators validators, boolean gzipped) {
+        if (validators == null) {
+            return builder;
+        }
+        if (validators.getEtag() != null) {
+            builder.eTag(gzipped ? "W/" + validators.getEtag() : validators.getEtag());
+        }
+        if (validators.getLastModified() > 0) {
+            builder.lastModified(validators.getLastModified());
+        }
+        return builder.cacheControl(CacheControl.maxAge(Duration.ofSeconds(validators.getMaxAgeSeconds())).cachePublic());
+    }
+
+    /**
+     * Entity tags of If-None-Match, a malformed header is ignored (full response) instead of failing the request.
+     */
+    static List<String> ifNoneMatch(HttpHeaders requestHeaders) {
+        try {
+            return requestHeaders.getIfNoneMatch();
+        } catch (IllegalArgumentException ex) {
+            return List.of();
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
     }
 }
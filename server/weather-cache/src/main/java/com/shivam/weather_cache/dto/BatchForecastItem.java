@@ -0,0 +1,34 @@
+package com.shivam.weather_cache.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Result of one city in a batch forecast request.
+ * status = HIT / MISS / STALE (same meaning as X-Cache) or ERROR, in which case
+ * errorCode and message describe the failure and data is null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchForecastItem {
+
+    public static final String ERROR = "ERROR";
+
+    private String city;
+    private String status;
+    private Integer errorCode;
+    private String message;
+    private Map<String, Object> data;
+
+    public static BatchForecastItem of(String city, CacheStatus status, Map<String, Object> data) {
+        return new BatchForecastItem(city, status.name(), null, null, data);
+    }
+
+    public static BatchForecastItem error(String city, int errorCode, String message) {
+        return new BatchForecastItem(city, ERROR, errorCode, message, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.shivam.weather_cache.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A cached value together with the meta fields read in the same round trip.
+ *
+ * @param <T> decoded map, raw body bytes or {@link EncodedBody}
+ */
+@Getter
+@RequiredArgsConstructor
+public class CacheEntry<T> {
+
+    private final T value;
+    private final Map<String, Object> meta;
+
+    /**
+     * Epoch ms of the last write (SVC call or refresh), 0 if unknown (written by an older version).
+     */
+    public long getSavedAt() {
+        return longMeta("savedAt");
+    }
+
+    /**
+     * Duration of the SVC call that produced the value, 0 if unknown.
+     */
+    public long getFetchMillis() {
+        return longMeta("fetchMillis");
+    }
+
+    /**
+     * Epoch ms at which the Redis keys expire (hard TTL), 0 if unknown.
+     */
+    public long getExpiresAt() {
+        return longMeta("expiresAt");
+    }
+
+    /**
+     * Hex content hash of the value (see {@link com.shivam.weather_cache.utils.ResponseBodyEncoder#etag}), null if unknown.
+     */
+    public String getEtag() {
+        Object v = meta.get("etag");
+        return v == null ? null : v.toString();
+    }
+
+    public <R> CacheEntry<R> withValue(Function<T, R> mapper) {
+        return new CacheEntry<>(mapper.apply(value), meta);
+    }
+
+    private long longMeta(String field) {
+        Object v = meta.get(field);
+        if (v instanceof Number n) return n.longValue();
+        if (v == null) return 0L;
+        try {
+            return Long.parseLong(v.toString());
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.shivam.weather_cache.dto;
 
 import lombok.Data;
-import lombok.Getter;
 
 import java.util.Map;
 
 @Data
 public class CacheResult {
     private final Map<String, Object> data;
-    private final boolean cacheHit;
+    private final CacheStatus status;
+    // ETag / Last-Modified / max-age of the entry, null when unknown
+    private final CacheValidators validators;
 
     public CacheResult(Map<String, Object> data, boolean cacheHit) {
+        this(data, cacheHit ? CacheStatus.HIT : CacheStatus.MISS);
+    }
+
+    public CacheResult(Map<String, Object> data, CacheStatus status) {
+        this(data, status, null);
+    }
+
+    public CacheResult(Map<String, Object> data, CacheStatus status, CacheValidators validators) {
         this.data = data;
-        this.cacheHit = cacheHit;
+        this.status = status;
+        this.validators = validators;
+    }
+
+    public boolean isCacheHit() {
+        return status != CacheStatus.MISS;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.shivam.weather_cache.dto;
+
+import com.shivam.weather_cache.utils.AppConstants;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Value of the X-Cache response header.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CacheStatus {
+    HIT(AppConstants.Headers.CACHE_HIT),
+    MISS(AppConstants.Headers.CACHE_MISS),
+    // Served past its soft TTL while a background refresh runs
+    STALE(AppConstants.Headers.CACHE_STALE);
+
+    private final String headerValue;
+}
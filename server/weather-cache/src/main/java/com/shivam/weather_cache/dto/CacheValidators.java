@@ -0,0 +1,53 @@
+package com.shivam.weather_cache.dto;
+
+import com.shivam.weather_common.projection.ForecastProjection;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * HTTP validators of a cached forecast, built from the entry meta only (no value needed):
+ * - etag: quoted strong ETag (content hash written with the value), null for entries written by an older version
+ * - lastModified: epoch ms of the last write, -1 if unknown
+ * - maxAgeSeconds: Cache-Control max-age, time left until the entry may be refreshed
+ */
+@Getter
+@RequiredArgsConstructor
+public class CacheValidators {
+    private final String etag;
+    private final long lastModified;
+    private final long maxAgeSeconds;
+    private final CacheStatus status;
+
+    /**
+     * Conditional GET check: If-None-Match takes precedence over If-Modified-Since (second precision),
+     * ETags are compared weakly so the W/ form sent for gzip bodies matches too.
+     *
+     * @param ifNoneMatch     entity tags of the request, empty if absent
+     * @param ifModifiedSince epoch ms of the request, -1 if absent
+     */
+    public boolean isNotModified(List<String> ifNoneMatch, long ifModifiedSince) {
+        if (!ifNoneMatch.isEmpty()) {
+            if (etag == null) return false;
+            for (String tag : ifNoneMatch) {
+                String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+                if ("*".equals(opaque) || etag.equals(opaque)) return true;
+            }
+            return false;
+        }
+        return ifModifiedSince >= 0 && lastModified > 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Validators of a projected representation (ETag variant, relative window bounds), full as-is for the full forecast.
+     */
+    public static CacheValidators projected(CacheValidators full, ForecastProjection projection, Instant now) {
+        if (full == null || projection.isIdentity()) {
+            return full;
+        }
+        return new CacheValidators(projection.etag(full.etag, now), projection.lastModified(full.lastModified, now),
+                projection.maxAgeSeconds(full.maxAgeSeconds, now), full.status);
+    }
+}
@@ -0,0 +1,14 @@
+package com.shivam.weather_cache.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Final HTTP response body of a forecast, encoded once at write time and served as-is on hits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EncodedBody {
+    private final byte[] bytes;
+    private final boolean gzipped;
+}
@@ -0,0 +1,16 @@
+package com.shivam.weather_cache.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class EncodedCacheResult {
+    private final EncodedBody body;
+    private final CacheStatus status;
+    private final CacheValidators validators;
+
+    public boolean isCacheHit() {
+        return status != CacheStatus.MISS;
+    }
+}
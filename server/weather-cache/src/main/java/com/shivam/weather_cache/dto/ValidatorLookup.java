@@ -0,0 +1,20 @@
+package com.shivam.weather_cache.dto;
+
+import com.shivam.weather_cache.utils.CacheFreshnessPolicy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of the conditional GET pre-check, nothing is counted by the lookup itself:
+ * - validators: of the cached entry
+ * - layer: where the entry meta was found (near / redis), for the cache result metric
+ * - freshness: decided once, a 304 starts the same background refresh a hit would
+ * A 304 is reported with recordNotModified, otherwise the full read counts the request.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ValidatorLookup {
+    private final CacheValidators validators;
+    private final String layer;
+    private final CacheFreshnessPolicy.Freshness freshness;
+}
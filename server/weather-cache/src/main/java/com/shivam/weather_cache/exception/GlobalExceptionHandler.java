@@ -1,6 +1,7 @@
 package com.shivam.weather_cache.exception;
 
 import com.shivam.weather_cache.dto.CustomResponse;
+import com.shivam.weather_common.projection.InvalidProjectionException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -54,4 +55,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new CustomResponse<>(false, message, null));
     }
+
+    /**
+     * Handles invalid fields / from / to / hours of a forecast projection, same 400 body as weather-svc.
+     */
+    @ExceptionHandler(InvalidProjectionException.class)
+    public ResponseEntity<CustomResponse<Object>> handleInvalidProjection(InvalidProjectionException ex) {
+        log.warn("Invalid forecast projection: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new CustomResponse<>(false, ex.getMessage(), null));
+    }
 }
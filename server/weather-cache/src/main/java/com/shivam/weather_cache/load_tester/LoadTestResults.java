@@ -0,0 +1,157 @@
+package com.shivam.weather_cache.load_tester;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms of a load test run, in microseconds (HdrHistogram, 3 significant digits, up to 60s):
+ * - latency: from the INTENDED start of a request (its slot in the arrival schedule) to its completion, so time
+ *   spent queued behind a slow server counts (coordinated omission corrected)
+ * - service: from the actual send to the completion, what a naive client would report
+ * Each is kept for all requests and split by X-Cache (HIT / MISS / STALE / none) and by status code.
+ */
+public class LoadTestResults {
+
+    static final String ALL = "all";
+    private static final long MAX_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, Histogram> latency = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> service = new ConcurrentHashMap<>();
+    // Progress lines, reset on every read
+    private final Recorder interval = new Recorder(MAX_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    public void record(String cacheStatus, String status, long latencyNanos, long serviceNanos) {
+        long latencyMicros = clamp(latencyNanos);
+        long serviceMicros = clamp(serviceNanos);
+        interval.recordValue(latencyMicros);
+        if (!status.startsWith("2") && !status.equals("304")) {
+            errors.increment();
+        }
+        for (String split : new String[]{ALL, "X-Cache=" + cacheStatus, "status=" + status}) {
+            latency.computeIfAbsent(split, k -> newHistogram()).recordValue(latencyMicros);
+            service.computeIfAbsent(split, k -> newHistogram()).recordValue(serviceMicros);
+        }
+    }
+
+    public Histogram intervalHistogram() {
+        return interval.getIntervalHistogram();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * Summary table per split, values in ms.
+     */
+    public void print(PrintStream out, double measuredSeconds) {
+        printTable(out, "Latency (from intended start, coordinated omission corrected)", latency, measuredSeconds);
+        printTable(out, "Service time (from actual send)", service, measuredSeconds);
+    }
+
+    /**
+     * Percentiles per split as a JSON-ready map, for comparing runs.
+     */
+    public Map<String, Object> summary(double measuredSeconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("latency", splitSummaries(latency, measuredSeconds));
+        result.put("service", splitSummaries(service, measuredSeconds));
+        return result;
+    }
+
+    /**
+     * Writes every histogram to an HdrHistogram log, tagged "latency:split" / "service:split".
+     * Logs of several generators can be merged with HistogramLogReader for one distributed view.
+     */
+    public void writeLog(String path, long startMillis, long endMillis) throws FileNotFoundException {
+        try (PrintStream stream = new PrintStream(path)) {
+            HistogramLogWriter writer = new HistogramLogWriter(stream);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.outputLegend();
+            writeTagged(writer, "latency", latency, startMillis, endMillis);
+            writeTagged(writer, "service", service, startMillis, endMillis);
+        }
+    }
+
+    private void writeTagged(HistogramLogWriter writer, String kind, Map<String, Histogram> histograms,
+                             long startMillis, long endMillis) {
+        new TreeMap<>(histograms).forEach((split, histogram) -> {
+            Histogram copy = histogram.copy();
+            copy.setTag(kind + ":" + split);
+            copy.setStartTimeStamp(startMillis);
+            copy.setEndTimeStamp(endMillis);
+            writer.outputIntervalHistogram(copy);
+        });
+    }
+
+    private Map<String, Object> splitSummaries(Map<String, Histogram> histograms, double measuredSeconds) {
+        Map<String, Object> splits = new LinkedHashMap<>();
+        sorted(histograms).forEach((split, histogram) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", histogram.getTotalCount());
+            values.put("rps", round(histogram.getTotalCount() / measuredSeconds));
+            values.put("p50_ms", millis(histogram.getValueAtPercentile(50)));
+            values.put("p90_ms", millis(histogram.getValueAtPercentile(90)));
+            values.put("p99_ms", millis(histogram.getValueAtPercentile(99)));
+            values.put("p999_ms", millis(histogram.getValueAtPercentile(99.9)));
+            values.put("max_ms", millis(histogram.getMaxValue()));
+            values.put("mean_ms", round(histogram.getMean() / 1000.0));
+            splits.put(split, values);
+        });
+        return splits;
+    }
+
+    private void printTable(PrintStream out, String title, Map<String, Histogram> histograms, double measuredSeconds) {
+        out.println();
+        out.println(title);
+        out.printf("%-16s %9s %9s %9s %9s %9s %9s %9s%n", "split", "count", "rps", "p50", "p90", "p99", "p99.9", "max");
+        sorted(histograms).forEach((split, h) -> out.printf("%-16s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                split, h.getTotalCount(), h.getTotalCount() / measuredSeconds,
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue())));
+    }
+
+    /**
+     * "all" first, then X-Cache splits, then status splits.
+     */
+    private static Map<String, Histogram> sorted(Map<String, Histogram> histograms) {
+        Map<String, Histogram> sorted = new LinkedHashMap<>();
+        if (histograms.containsKey(ALL)) sorted.put(ALL, histograms.get(ALL));
+        new TreeMap<>(histograms).forEach((split, h) -> {
+            if (split.startsWith("X-Cache=")) sorted.put(split, h);
+        });
+        new TreeMap<>(histograms).forEach((split, h) -> {
+            if (split.startsWith("status=")) sorted.put(split, h);
+        });
+        return sorted;
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(MAX_MICROS, 3);
+    }
+
+    private static long clamp(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAX_MICROS);
+    }
+
+    static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -1,4 +1,295 @@
 package com.shivam.weather_cache.load_tester;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for /api/weather-cache/forecast, one virtual thread per in-flight request.
+ * - open (default): requests arrive at a fixed rate ({@code --rate}) whatever the server does, like real users.
+ * - closed: {@code --concurrency} users send back to back, each paced to rate / concurrency when {@code --rate} is set.
+ * - Cities are drawn from city.csv with a Zipf skew ({@code --zipf}, 0 = uniform) to get HOT / MEDIUM / LOW traffic.
+ * - Latency is measured from the intended start of each request (coordinated omission corrected) and split by
+ *   X-Cache and status code, see {@link LoadTestResults}. The warm-up part of the run is not recorded.
+ * - Distributed runs: start several generators with the same {@code --start-at} (epoch ms) and merge their
+ *   {@code --hlog} files.
+ *
+ * <pre>
+ * java -cp weather-cache.jar -Dloader.main=com.shivam.weather_cache.load_tester.VirtualThreadLoadTestDistributed \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher --rate=200 --duration=60 --zipf=1.0 --out=run.json
+ * </pre>
+ */
 public class VirtualThreadLoadTestDistributed {
+
+    private static final String USAGE = """
+            Usage: VirtualThreadLoadTestDistributed [--option=value ...]
+              --url=http://localhost:8081/api/weather-cache/forecast
+              --mode=open|closed        open = fixed arrival rate, closed = fixed concurrency (default open)
+              --rate=100                requests/s (open: required, closed: optional pacing)
+              --concurrency=50          closed mode users
+              --max-inflight=10000      open mode cap on requests in flight
+              --duration=60             measured seconds
+              --warmup=10               seconds run before measuring, not recorded
+              --cities=classpath:warmup/city.csv
+              --zipf=1.0                skew exponent, 0 = uniform
+              --timeout-ms=5000         per request timeout
+              --start-at=<epoch ms>     synchronized start of several generators
+              --out=<file.json>         summary (percentiles per split)
+              --hlog=<file.hlog>        HdrHistogram log, mergeable across generators
+            """;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help")) {
+            System.out.print(USAGE);
+            return;
+        }
+
+        String url = options.getOrDefault("url", "http://localhost:8081/api/weather-cache/forecast");
+        boolean open = !"closed".equalsIgnoreCase(options.getOrDefault("mode", "open"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", open ? "100" : "0"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        int maxInflight = Integer.parseInt(options.getOrDefault("max-inflight", "10000"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "60")));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "5000")));
+        double zipf = Double.parseDouble(options.getOrDefault("zipf", "1.0"));
+
+        if (open && rate <= 0) {
+            System.err.println("--rate must be > 0 in open mode");
+            System.exit(1);
+        }
+
+        List<String> cities = ZipfCitySampler.loadCities(options.getOrDefault("cities", "classpath:warmup/city.csv"));
+        ZipfCitySampler sampler = new ZipfCitySampler(cities, zipf);
+        System.out.printf("%s loop, %s, %d cities (zipf=%.2f, top 10 = %.0f%% of requests), warmup=%ds, duration=%ds → %s%n",
+                open ? "Open" : "Closed",
+                open ? rate + " req/s" : concurrency + " users" + (rate > 0 ? " paced to " + rate + " req/s" : " back to back"),
+                sampler.size(), zipf, sampler.topShare(10) * 100,
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos), url);
+        if (!open && rate <= 0) {
+            System.out.println("No --rate in closed mode: latency equals service time (no schedule to correct against)");
+        }
+
+        if (options.containsKey("start-at")) {
+            long waitMillis = Long.parseLong(options.get("start-at")) - System.currentTimeMillis();
+            if (waitMillis > 0) {
+                System.out.printf("Waiting %d ms for the synchronized start%n", waitMillis);
+                Thread.sleep(waitMillis);
+            }
+        }
+
+        LoadTestResults results = new LoadTestResults();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(clientExecutor)
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(timeout)
+                     .build()) {
+
+            Target target = new Target(client, url, timeout, sampler, results);
+            long startMillis = System.currentTimeMillis();
+            long start = System.nanoTime();
+            long measureFrom = start + warmupNanos;
+            long end = measureFrom + durationNanos;
+
+            Thread reporter = Thread.startVirtualThread(() -> report(results, target, start, measureFrom));
+            if (open) {
+                runOpen(executor, target, rate, maxInflight, start, measureFrom, end);
+            } else {
+                runClosed(executor, target, concurrency, rate, start, measureFrom, end);
+            }
+            // Closed mode users are still running, in-flight requests end within their timeout
+            executor.shutdown();
+            executor.awaitTermination(Math.max(0, end - System.nanoTime()) + timeout.toNanos() + TimeUnit.SECONDS.toNanos(1),
+                    TimeUnit.NANOSECONDS);
+            reporter.interrupt();
+
+            double measuredSeconds = durationNanos / 1e9;
+            results.print(System.out, measuredSeconds);
+            write(options, results, measuredSeconds, startMillis);
+        }
+    }
+
+    /**
+     * Request i is due at start + i / rate. A late dispatch (generator or in-flight cap) keeps the schedule,
+     * the delay shows up in the latency instead of silently lowering the rate.
+     */
+    private static void runOpen(ExecutorService executor, Target target, double rate, int maxInflight,
+                                long start, long measureFrom, long end) throws InterruptedException {
+        double intervalNanos = 1e9 / rate;
+        Semaphore inflight = new Semaphore(maxInflight);
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) break;
+            waitUntil(intended);
+            inflight.acquire();
+            executor.submit(() -> {
+                try {
+                    target.send(intended, intended >= measureFrom);
+                } finally {
+                    inflight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Each user sends its next request when the previous one completed, at the earliest at its next paced slot.
+     */
+    private static void runClosed(ExecutorService executor, Target target, int concurrency, double rate,
+                                  long start, long measureFrom, long end) {
+        double userIntervalNanos = rate > 0 ? 1e9 * concurrency / rate : 0;
+        for (int u = 0; u < concurrency; u++) {
+            // Users are spread over one interval so they do not fire in lockstep
+            long offset = (long) (userIntervalNanos * u / concurrency);
+            executor.submit(() -> {
+                long intended = start + offset;
+                while (intended < end && !Thread.currentThread().isInterrupted()) {
+                    if (rate > 0) {
+                        waitUntil(intended);
+                    } else {
+                        intended = System.nanoTime();
+                    }
+                    target.send(intended, intended >= measureFrom);
+                    intended += (long) userIntervalNanos;
+                }
+            });
+        }
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long wait;
+        while ((wait = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * One line every 5s: throughput, errors and latency percentiles of the interval.
+     */
+    private static void report(LoadTestResults results, Target target, long start, long measureFrom) {
+        long lastSent = 0;
+        try {
+            while (true) {
+                Thread.sleep(5000);
+                Histogram interval = results.intervalHistogram();
+                long sent = target.sent.get();
+                System.out.printf("%5ds%s sent=%d (%.0f/s) done=%d in-flight=%d errors=%d p50=%.2fms p99=%.2fms max=%.2fms%n",
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                        System.nanoTime() < measureFrom ? " [warmup]" : "",
+                        sent, (sent - lastSent) / 5.0, target.completed.get(), sent - target.completed.get(), results.errors(),
+                        LoadTestResults.millis(interval.getValueAtPercentile(50)),
+                        LoadTestResults.millis(interval.getValueAtPercentile(99)),
+                        LoadTestResults.millis(interval.getMaxValue()));
+                lastSent = sent;
+            }
+        } catch (InterruptedException ignored) {
+            // Run finished
+        }
+    }
+
+    private static void write(Map<String, String> options, LoadTestResults results, double measuredSeconds,
+                              long startMillis) throws IOException {
+        if (options.containsKey("out")) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("startedAt", Instant.ofEpochMilli(startMillis).toString());
+            summary.put("options", options);
+            summary.putAll(results.summary(measuredSeconds));
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(options.get("out")), summary);
+            System.out.println("Summary written to " + options.get("out"));
+        }
+        if (options.containsKey("hlog")) {
+            results.writeLog(options.get("hlog"), startMillis, System.currentTimeMillis());
+            System.out.println("Histogram log written to " + options.get("hlog"));
+        }
+    }
+
+    /**
+     * --key=value (or --flag) arguments.
+     */
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                System.err.print("Unexpected argument " + arg + "\n" + USAGE);
+                System.exit(1);
+            }
+            String[] pair = arg.substring(2).split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        return options;
+    }
+
+    /**
+     * The forecast endpoint, sends one request and records it.
+     */
+    private static final class Target {
+
+        private final HttpClient client;
+        private final String url;
+        private final Duration timeout;
+        private final ZipfCitySampler sampler;
+        private final LoadTestResults results;
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+
+        Target(HttpClient client, String url, Duration timeout, ZipfCitySampler sampler, LoadTestResults results) {
+            this.client = client;
+            this.url = url;
+            this.timeout = timeout;
+            this.sampler = sampler;
+            this.results = results;
+        }
+
+        void send(long intended, boolean record) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "?city=" + URLEncoder.encode(sampler.next(), StandardCharsets.UTF_8)))
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            sent.incrementAndGet();
+            long sentAt = System.nanoTime();
+            String cacheStatus = "none";
+            String status;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                status = String.valueOf(response.statusCode());
+                cacheStatus = response.headers().firstValue("X-Cache").orElse("none");
+            } catch (IOException ex) {
+                status = ex instanceof HttpTimeoutException ? "timeout" : "error";
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long done = System.nanoTime();
+            completed.incrementAndGet();
+            if (record) {
+                results.record(cacheStatus, status, done - intended, done - sentAt);
+            }
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.shivam.weather_cache.load_tester;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws cities with a Zipf skew: the city of rank k (line order in the csv) is picked with weight 1 / k^s.
+ * - s = 0: uniform, every city is LOW
+ * - s ≈ 1: a few HOT cities take most of the traffic, a long LOW tail (typical read traffic)
+ * The CDF is precomputed once, a draw is one binary search, safe from any thread.
+ */
+public class ZipfCitySampler {
+
+    private final List<String> cities;
+    private final double[] cdf;
+
+    public ZipfCitySampler(List<String> cities, double exponent) {
+        if (cities.isEmpty()) {
+            throw new IllegalArgumentException("City list is empty");
+        }
+        this.cities = List.copyOf(cities);
+        this.cdf = new double[cities.size()];
+        double sum = 0;
+        for (int rank = 1; rank <= cities.size(); rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    public String next() {
+        int index = Arrays.binarySearch(cdf, ThreadLocalRandom.current().nextDouble());
+        // Not found = -(insertion point) - 1, the insertion point is the first cdf value above the draw
+        return cities.get(Math.min(index >= 0 ? index : -index - 1, cities.size() - 1));
+    }
+
+    /**
+     * Share of the traffic going to the top {@code n} cities.
+     */
+    public double topShare(int n) {
+        return n <= 0 ? 0 : cdf[Math.min(n, cdf.length) - 1];
+    }
+
+    public int size() {
+        return cities.size();
+    }
+
+    /**
+     * Loads a city list (one city per line, first column of a csv, "city" header skipped), duplicates dropped.
+     * Accepts resource locations: file:..., classpath:... or a plain file path.
+     */
+    public static List<String> loadCities(String location) throws IOException {
+        Resource resource = location.startsWith("classpath:") || location.startsWith("file:")
+                ? new DefaultResourceLoader().getResource(location)
+                : new FileSystemResource(location);
+        Set<String> cities = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String city = line.split(",", 2)[0].trim();
+                if (!city.isEmpty() && !city.equalsIgnoreCase("city")) {
+                    cities.add(city);
+                }
+            }
+        }
+        return new ArrayList<>(cities);
+    }
+}
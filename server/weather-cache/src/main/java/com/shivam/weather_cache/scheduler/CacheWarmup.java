@@ -0,0 +1,176 @@
+package com.shivam.weather_cache.scheduler;
+
+import com.shivam.weather_cache.service.GenericRedisServiceImpl;
+import com.shivam.weather_cache.service.CityRefresher;
+import com.shivam.weather_cache.service.WeatherCacheServiceImpl;
+import com.shivam.weather_cache.utils.SchedulerLeaderLease;
+import com.shivam.weather_cache.utils.TokenBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional cache warm-up after startup ({@code warmup.enabled}):
+ * - Loads the city list ({@code warmup.cities_file}, one city per line, "city" header skipped).
+ * - Runs on the scheduler lease holder only (one replica per deployment), stops if the lease is lost.
+ * - Skips cities already cached, prefetches the rest through {@link CityRefresher}, so a user miss
+ *   for the same city shares the SVC call, paced by the scheduler's token bucket: warm-up and scheduled
+ *   refreshes share one {@code schedular.refresh_rate_per_min} budget below the weather-svc rate limit.
+ * - Runs on a virtual thread, gives up after {@code warmup.max_duration_ms}.
+ * - As the "warmup" health indicator in the readiness group it keeps the pod OUT_OF_SERVICE until done
+ *   ({@code warmup.block_readiness}), details show the progress.
+ */
+@Slf4j
+@Component("warmup")
+@RequiredArgsConstructor
+public class CacheWarmup implements HealthIndicator {
+
+    private final GenericRedisServiceImpl redisService;
+    private final CityRefresher cityRefresher;
+    private final SchedulerLeaderLease leaderLease;
+    private final TokenBucket refreshPacer;
+
+    @Value("${warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${warmup.cities_file}")
+    private String citiesFile;
+
+    @Value("${warmup.max_duration_ms}")
+    private long maxDurationMs;
+
+    @Value("${warmup.block_readiness}")
+    private boolean blockReadiness;
+
+    @Value("${schedular.batch_size}")
+    private int batchSize;
+
+    private volatile boolean done;
+    // Not the lease holder, the replica holding it warms the shared cache
+    private volatile boolean skipped;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger alreadyCached = new AtomicInteger();
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        Thread.startVirtualThread(() -> {
+            try {
+                run();
+            } catch (Exception ex) {
+                log.error("Cache warm-up failed", ex);
+            } finally {
+                done = true;
+            }
+        });
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = done || !blockReadiness ? Health.up() : Health.outOfService();
+        if (!enabled) {
+            return builder.withDetail("enabled", false).build();
+        }
+        return builder
+                .withDetail("done", done)
+                .withDetail("skipped", skipped)
+                .withDetail("total", total.get())
+                .withDetail("alreadyCached", alreadyCached.get())
+                .withDetail("loaded", loaded.get())
+                .withDetail("failed", failed.get())
+                .build();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        if (!leaderLease.ensureLeader()) {
+            skipped = true;
+            log.info("Cache warm-up skipped, another replica holds the scheduler lease");
+            return;
+        }
+        List<String> cities = loadCities();
+        total.set(cities.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        log.info("Cache warm-up started → {} cities from {}", cities.size(), citiesFile);
+
+        for (int from = 0; from < cities.size(); from += batchSize) {
+            List<String> batch = cities.subList(from, Math.min(from + batchSize, cities.size()));
+            List<String> keys = batch.stream().map(WeatherCacheServiceImpl::cacheKey).toList();
+            // Meta expires together with the data, an empty meta means the city is not cached
+            List<Map<Object, Object>> metas = redisService.getMetaBatch(keys);
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (!metas.get(i).isEmpty()) {
+                    alreadyCached.incrementAndGet();
+                    continue;
+                }
+                if (!refreshPacer.acquire(deadline)) {
+                    log.warn("Cache warm-up stopped after {} ms, {} cities not loaded", maxDurationMs, remaining());
+                    return;
+                }
+                if (!leaderLease.isLeader()) {
+                    log.warn("Cache warm-up stopped, scheduler lease lost, {} cities not loaded", remaining());
+                    return;
+                }
+                warm(batch.get(i));
+            }
+        }
+        log.info("Cache warm-up completed → loaded={}, alreadyCached={}, failed={}",
+                loaded.get(), alreadyCached.get(), failed.get());
+    }
+
+    /**
+     * Coalesced fetch and save, throws on an empty SVC response.
+     */
+    private void warm(String city) {
+        try {
+            cityRefresher.refresh(city);
+            loaded.incrementAndGet();
+        } catch (Exception ex) {
+            failed.incrementAndGet();
+            log.warn("Cache warm-up failed for {}: {}", city, ex.getMessage());
+        }
+    }
+
+    private int remaining() {
+        return total.get() - alreadyCached.get() - loaded.get() - failed.get();
+    }
+
+    private List<String> loadCities() throws IOException {
+        Resource resource = new DefaultResourceLoader().getResource(citiesFile);
+        Set<String> cities = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String city = line.split(",", 2)[0].trim();
+                if (!city.isEmpty() && !city.equalsIgnoreCase("city")) {
+                    cities.add(city);
+                }
+            }
+        }
+        return new ArrayList<>(cities);
+    }
+}
@@ -0,0 +1,44 @@
+package com.shivam.weather_cache.scheduler;
+
+import com.shivam.weather_cache.service.GenericRedisService;
+import com.shivam.weather_cache.service.HitCounterBuffer;
+import com.shivam.weather_cache.service.PopularitySketch;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Flushes buffered cache hits to Redis (pipelined HINCRBY / HSET / ZADD NX) on a short interval,
+ * together with the local popularity sketch cells (pipelined HINCRBY on the shared sketch).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HitCounterFlushScheduler {
+
+    private final HitCounterBuffer hitCounterBuffer;
+    private final PopularitySketch popularitySketch;
+    private final GenericRedisService redisService;
+
+    @Scheduled(fixedDelayString = "${hit_buffer.flush_interval_ms}")
+    public void flush() {
+        Map<String, HitCounterBuffer.HitSnapshot> hits = hitCounterBuffer.drain();
+        if (!hits.isEmpty()) {
+            redisService.flushHits(hits);
+        }
+        Map<Integer, Long> cells = popularitySketch.drain();
+        if (!cells.isEmpty()) {
+            redisService.flushPopularity(cells);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing {} buffered hit counters before shutdown", hitCounterBuffer.size());
+        flush();
+    }
+}
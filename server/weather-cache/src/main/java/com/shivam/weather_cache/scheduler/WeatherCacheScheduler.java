@@ -1,8 +1,12 @@
 package com.shivam.weather_cache.scheduler;
 
 import com.shivam.weather_cache.service.GenericRedisServiceImpl;
+import com.shivam.weather_cache.service.CityRefresher;
+import com.shivam.weather_cache.utils.CacheMetrics;
 import com.shivam.weather_cache.utils.DateTimeUtils;
-import com.shivam.weather_cache.utils.WeatherSvcClient;
+import com.shivam.weather_cache.utils.SchedulerLeaderLease;
+import com.shivam.weather_cache.utils.TokenBucket;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,11 +14,19 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Component
@@ -22,8 +34,13 @@ import java.util.concurrent.ConcurrentHashMap;
 public class WeatherCacheScheduler {
 
     private final GenericRedisServiceImpl redisService;
-    private final WeatherSvcClient weatherSvcClient;
+    private final CityRefresher cityRefresher;
+    private final SchedulerLeaderLease leaderLease;
+    private final CacheMetrics cacheMetrics;
+    // Shared with CacheWarmup
+    private final TokenBucket refreshPacer;
 
+    // Tier thresholds on the decayed popularity score (PopularitySketch), not on the meta hits counter
     @Value("${schedular.hot_hit_threshold}")
     private long HOT_HIT_THRESHOLD;
 
@@ -42,77 +59,84 @@ public class WeatherCacheScheduler {
     @Value("${schedular.max_age}")
     private long MAX_AGE;
 
-    private final Random random = new Random();
+    @Value("${schedular.batch_size}")
+    private int BATCH_SIZE;
+
+    @Value("${popularity.decay_interval_ms}")
+    private long POPULARITY_DECAY_INTERVAL;
+
+    // Refresh executor: max parallel SVC calls, pacing sized below the weather-svc rate limit
+    @Value("${schedular.refresh_concurrency}")
+    private int REFRESH_CONCURRENCY;
+
+    @Value("${schedular.refresh_rate_per_min}")
+    private double REFRESH_RATE_PER_MIN;
+
+    @Value("${schedular.refresh_burst}")
+    private int REFRESH_BURST;
+
+    // Time a tick may spend refreshing, leftovers are deferred to the next tick
+    @Value("${schedular.refresh_tick_budget_ms}")
+    private long REFRESH_TICK_BUDGET;
+
+    // Due cities left over by the last tick (budget spent), for monitoring
+    private final AtomicInteger lastDeferred = new AtomicInteger();
 
     /**
-     * Scheduler runs every 5 min:
-     * - Refreshes HOT/MEDIUM cities asynchronously via virtual threads.
-     * - Removes inactive cities.
-     * - Staggered 0-500ms delay per city for SVC call will be in limit.
+     * A due city that needs an SVC call, ordered HOT before MEDIUM then earliest due first.
+     */
+    private record RefreshCandidate(String cityKey, Map<Object, Object> meta, boolean hot) {}
+
+    @PostConstruct
+    void initPacer() {
+        log.info("Refresh executor → concurrency={}, rate={}/min, burst={}, tickBudget={}ms",
+                REFRESH_CONCURRENCY, REFRESH_RATE_PER_MIN, REFRESH_BURST, REFRESH_TICK_BUDGET);
+        cacheMetrics.lastDeferredGauge(lastDeferred);
+    }
+
+    /**
+     * Continuous scheduler, ticks every {@code schedular.tick_ms} (default 1s):
+     * - The refresh-due index (ZSET scored by next due time) is the priority queue, a tick pops only the cities
+     *   whose due time has passed, so each city is refreshed within a tick of its due time instead of on a 5 min sweep.
+     * - Not yet due cities are re-armed at lastRefresh + tier interval, LOW / expired cities leave the index
+     *   (a later cache hit puts them back).
+     * - Refreshes HOT cities first, then MEDIUM, on virtual threads bounded by {@code schedular.refresh_concurrency}
+     *   and paced by a token bucket ({@code schedular.refresh_rate_per_min}) shared by all ticks,
+     *   so upstream load stays smooth.
+     * - Reads the index in due order (ZRANGEBYSCORE ... LIMIT) and stops collecting once it has as many candidates
+     *   as the pacer can start within the tick budget, so a backlog is not re-read and re-classified every tick.
+     * - Stops once the tick budget is spent (or the leader lease is lost), the rest stays due in the index
+     *   and is picked first next tick.
+     * - Runs on the lease holder only, so upstream refresh traffic does not grow with the replica count.
+     * - Ticks with due cities are timed (weather.cache.scheduler.tick), refreshes / deferrals counted per tier.
      * - Logs summary **after all threads complete**.
      */
-    @Scheduled(fixedRate = 5 * 60 * 1000L)
+    @Scheduled(fixedDelayString = "${schedular.tick_ms}")
     public void refreshCache() {
+        if (!leaderLease.ensureLeader()) {
+            log.debug("Scheduler skipped, another replica holds the scheduler lease");
+            return;
+        }
         long now = Instant.now().toEpochMilli();
-        log.info("Scheduler triggered at {}", DateTimeUtils.formatEpochMilli(now));
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(REFRESH_TICK_BUDGET);
 
         try {
-            Set<String> keys = redisService.getAllKeys("weather:*:data");
-            if (keys == null || keys.isEmpty()) {
-                log.info("No cached cities to process.");
+            // No point classifying more due cities than the pacer can start before the budget is spent
+            long startable = refreshPacer.available(deadline - start);
+            if (startable <= 0) {
                 return;
             }
+            List<RefreshCandidate> candidates = collectCandidates(now, (int) Math.min(startable, Integer.MAX_VALUE));
+            if (candidates.isEmpty()) {
+                lastDeferred.set(0);
+                return;
+            }
+            log.info("Scheduler tick at {}, {} cities due", DateTimeUtils.formatEpochMilli(now), candidates.size());
 
             Set<String> hotRefreshed = ConcurrentHashMap.newKeySet();
             Set<String> mediumRefreshed = ConcurrentHashMap.newKeySet();
-
-            // Track virtual threads for join
-            Thread[] threads = new Thread[keys.size()];
-            int i = 0;
-
-            for (String dataKey : keys) {
-                final String cityDataKey = dataKey;
-                threads[i++] = Thread.startVirtualThread(() -> {
-                    try {
-                        Thread.sleep(random.nextInt(500)); // stagger
-
-                        String cityKey = cityDataKey.replace(":data", "");
-                        Map<Object, Object> meta = safeMeta(redisService.getMeta(cityKey));
-
-                        long hits = parseLong(meta.get("hits"));
-                        long lastAccess = parseLong(meta.get("lastAccess"));
-                        long lastRefresh = parseLong(meta.get("lastRefresh"));
-                        long age = now - lastAccess;
-
-                        if (hits >= HOT_HIT_THRESHOLD) {
-                            log.info("HOT_ACTIVE_REFRESH");
-                            handleRefresh(cityKey, meta, now, lastRefresh, HOT_REFRESH_INTERVAL, "🔥 HOT");
-                            hotRefreshed.add(cityKey);
-                        } else if (hits >= MEDIUM_HIT_THRESHOLD) {
-                            log.info("MEDIUM_ACTIVE_REFRESH");
-                            handleRefresh(cityKey, meta, now, lastRefresh, MEDIUM_REFRESH_INTERVAL, "🌤 MEDIUM");
-                            mediumRefreshed.add(cityKey);
-                        } else {
-                            log.info("LOW_ACTIVE_REMOVAL");
-                            log.info("LOW_ACTIVE city {} age is {} removed with TTL naturally : ", cityKey, (age / 1000 * 60));
-                            log.info("LOW_ACTIVE cities expire naturally via Redis TTL of 1 hours, no scheduler refresh needed.");
-                            //NOT REQ - handleRefresh(cityKey, meta, now, lastRefresh, LOW_ACTIVE_REFRESH_INTERVAL, "☁️ LOW_ACTIVE");
-                            //NOT REQ - handleRemoval(cityKey, age);
-                        }
-
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        log.warn("Virtual thread interrupted for key: {}", cityDataKey);
-                    } catch (Exception ex) {
-                        log.error("Error processing city key: {}", cityDataKey, ex);
-                    }
-                });
-            }
-
-            // Wait for all virtual threads to complete before summary
-            for (Thread t : threads) {
-                t.join();
-            }
+            List<RefreshCandidate> deferred = runRefreshes(candidates, now, deadline, hotRefreshed, mediumRefreshed);
 
             // Summary logging
             if (!hotRefreshed.isEmpty()) {
@@ -121,26 +145,201 @@ public class WeatherCacheScheduler {
             if (!mediumRefreshed.isEmpty()) {
                 log.info("Refreshed MEDIUM cities: {}", mediumRefreshed);
             }
-            if (hotRefreshed.isEmpty() && mediumRefreshed.isEmpty()) {
-                log.info("No cities found to refresh");
+            lastDeferred.set(deferred.size());
+            if (!deferred.isEmpty()) {
+                long deferredHot = deferred.stream().filter(RefreshCandidate::hot).count();
+                cacheMetrics.deferred(CacheMetrics.TIER_HOT, deferredHot);
+                cacheMetrics.deferred(CacheMetrics.TIER_MEDIUM, deferred.size() - deferredHot);
+                log.warn("Refresh tick stopped early, deferred {} due cities to the next tick (HOT={}, MEDIUM={}), first: {}",
+                        deferred.size(), deferredHot, deferred.size() - deferredHot,
+                        deferred.stream().limit(10).map(RefreshCandidate::cityKey).toList());
             }
 
-            log.info("Scheduler completed all virtual-thread refreshes");
+            cacheMetrics.schedulerTick().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.info("Scheduler tick completed all virtual-thread refreshes, {} due cities to refresh, {} deferred",
+                    candidates.size(), deferred.size());
 
         } catch (Exception ex) {
             log.error("Error in WeatherCacheScheduler", ex);
         }
     }
 
-    private void handleRefresh(String cityKey, Map<Object, Object> meta, long now,
-                               long lastRefresh, long interval, String level) {
+    public int getLastDeferred() {
+        return lastDeferred.get();
+    }
+
+    /**
+     * Safety net for the index (e.g. index key lost or entries cached before the index existed):
+     * SCANs the data keys and adds missing cities with ZADD NX, existing due times are untouched.
+     */
+    @Scheduled(fixedRateString = "${schedular.index_reconcile_interval}", initialDelay = 60 * 1000L)
+    public void reconcileIndex() {
+        if (!leaderLease.ensureLeader()) {
+            return;
+        }
+        long now = Instant.now().toEpochMilli();
+        AtomicLong scanned = new AtomicLong();
+        // Data keys, or body keys in bytes serve mode
+        String valueSuffix = redisService.valueKey("");
+        redisService.scanKeys("weather:*" + valueSuffix, BATCH_SIZE, page -> {
+            scanned.addAndGet(page.size());
+            List<String> cityKeys = page.stream().map(k -> k.substring(0, k.length() - valueSuffix.length())).toList();
+            redisService.indexIfAbsent(cityKeys, now);
+        });
+        log.info("Refresh-due index reconciled against {} cached cities", scanned.get());
+    }
+
+    /**
+     * Ages the shared popularity sketch (halves every cell), the script skips it if another replica
+     * already did within the interval.
+     */
+    @Scheduled(fixedRateString = "${popularity.decay_interval_ms}", initialDelayString = "${popularity.decay_interval_ms}")
+    public void decayPopularity() {
+        if (!leaderLease.ensureLeader()) {
+            return;
+        }
+        redisService.decayPopularity(POPULARITY_DECAY_INTERVAL);
+    }
+
+    /**
+     * Walks the due part of the index page by page in due order, re-arms / removes what needs no SVC call
+     * and returns at most {@code limit} candidates, HOT first, each tier in due order.
+     */
+    private List<RefreshCandidate> collectCandidates(long now, int limit) {
+        List<RefreshCandidate> hot = new ArrayList<>();
+        List<RefreshCandidate> medium = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        List<String> due;
+        int collected;
+        // Candidates stay due in the index, everything before them has been re-armed or removed
+        while ((collected = hot.size() + medium.size()) < limit
+                && !(due = redisService.getDueKeys(now, collected, Math.min(BATCH_SIZE, limit - collected))).isEmpty()) {
+            // Guard: a key that could not be re-armed would be returned again
+            if (!seen.addAll(due)) {
+                log.warn("Refresh-due index did not advance, stopping this tick");
+                break;
+            }
+            classifyBatch(due, now, hot, medium);
+        }
+
+        hot.addAll(medium);
+        return hot;
+    }
+
+    /**
+     * Classifies one page of due cities with a pipelined meta read and a pipelined popularity read.
+     * The tier comes from the decayed popularity score, which a refresh does not reset.
+     */
+    private void classifyBatch(List<String> cityKeys, long now, List<RefreshCandidate> hot, List<RefreshCandidate> medium) {
+        List<Map<Object, Object>> metas = redisService.getMetaBatch(cityKeys);
+        List<Long> scores = redisService.getPopularity(cityKeys);
+
+        for (int i = 0; i < cityKeys.size(); i++) {
+            String cityKey = cityKeys.get(i);
+            Map<Object, Object> meta = safeMeta(metas.get(i));
+            if (meta.isEmpty()) {
+                // Expired via TTL, nothing left to refresh
+                redisService.removeFromRefreshIndex(cityKey);
+                continue;
+            }
+
+            long score = scores.get(i);
+            long lastAccess = parseLong(meta.get("lastAccess"));
+            long lastRefresh = parseLong(meta.get("lastRefresh"));
+            long age = now - lastAccess;
+
+            if (score >= HOT_HIT_THRESHOLD) {
+                log.debug("HOT_ACTIVE_REFRESH {} score={}", cityKey, score);
+                if (isDue(cityKey, now, lastRefresh, HOT_REFRESH_INTERVAL)) {
+                    hot.add(new RefreshCandidate(cityKey, meta, true));
+                }
+            } else if (score >= MEDIUM_HIT_THRESHOLD) {
+                log.debug("MEDIUM_ACTIVE_REFRESH {} score={}", cityKey, score);
+                if (isDue(cityKey, now, lastRefresh, MEDIUM_REFRESH_INTERVAL)) {
+                    medium.add(new RefreshCandidate(cityKey, meta, false));
+                }
+            } else {
+                // LOW_ACTIVE cities expire naturally via Redis TTL, no scheduler refresh needed
+                log.debug("LOW_ACTIVE_REMOVAL {} score={}, idle {} min, left to its TTL", cityKey, score, age / 60000);
+                redisService.removeFromRefreshIndex(cityKey);
+                //NOT REQ - handleRefresh(cityKey, meta, now, lastRefresh, LOW_ACTIVE_REFRESH_INTERVAL, "☁️ LOW_ACTIVE");
+                //NOT REQ - handleRemoval(cityKey, age);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the candidates in order: a concurrency permit, then a pacer token, then a virtual thread.
+     * Stops starting refreshes when the tick budget is spent or the lease is lost.
+     * Waits for the started refreshes before returning.
+     *
+     * @return the candidates not started
+     */
+    private List<RefreshCandidate> runRefreshes(List<RefreshCandidate> candidates, long now, long deadline,
+                                                Set<String> hotRefreshed, Set<String> mediumRefreshed) {
+        Semaphore permits = new Semaphore(Math.max(1, REFRESH_CONCURRENCY));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < candidates.size(); i++) {
+                RefreshCandidate candidate = candidates.get(i);
+                if (!leaderLease.isLeader()) {
+                    log.warn("Scheduler lease lost, stopping refreshes of this tick");
+                    return candidates.subList(i, candidates.size());
+                }
+                try {
+                    if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                        return candidates.subList(i, candidates.size());
+                    }
+                    if (!refreshPacer.acquire(deadline)) {
+                        permits.release();
+                        return candidates.subList(i, candidates.size());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return candidates.subList(i, candidates.size());
+                }
+
+                String tier = candidate.hot() ? CacheMetrics.TIER_HOT : CacheMetrics.TIER_MEDIUM;
+                executor.submit(() -> {
+                    try {
+                        refresh(candidate.cityKey(), candidate.meta(), candidate.hot() ? "🔥 HOT" : "🌤 MEDIUM");
+                        (candidate.hot() ? hotRefreshed : mediumRefreshed).add(candidate.cityKey());
+                        cacheMetrics.refreshed(tier, true);
+                    } catch (Exception ex) {
+                        cacheMetrics.refreshed(tier, false);
+                        log.error("Error processing city key: {}", candidate.cityKey(), ex);
+                        // Retry later instead of spinning on the same due entry every tick
+                        redisService.rearmRefresh(candidate.cityKey(), now + HOT_REFRESH_INTERVAL);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * True when the tier interval has elapsed, otherwise re-arms the city for the moment it becomes due.
+     */
+    private boolean isDue(String cityKey, long now, long lastRefresh, long interval) {
         if (now - lastRefresh >= interval) {
-            log.info("{} Refreshing weather data for '{}' , Meta Data: {}", level, cityKey, meta);
-            String city = cityKey.split(":")[1];
-            Object result = weatherSvcClient.fetchWeatherData(city);
-            redisService.saveWithMeta(cityKey, result, true);
-            log.info("Weather data refreshed for {} : {}", city, result);
+            return true;
         }
+        redisService.rearmRefresh(cityKey, lastRefresh + interval);
+        return false;
+    }
+
+    /**
+     * SVC call and save through the service's coalesced fetch, so a miss or background refresh of the same city
+     * shares the call. saveWithMeta re-arms the city, an empty result throws and is re-armed by the caller.
+     */
+    private void refresh(String cityKey, Map<Object, Object> meta, String level) {
+        log.info("{} Refreshing weather data for '{}' , Meta Data: {}", level, cityKey, meta);
+        String city = cityKey.split(":")[1];
+        cityRefresher.refresh(city);
+        log.info("Weather data refreshed for {}", city);
     }
 
     private void handleRemoval(String cityKey, long age) {
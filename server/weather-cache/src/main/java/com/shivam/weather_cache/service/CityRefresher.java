@@ -0,0 +1,15 @@
+package com.shivam.weather_cache.service;
+
+/**
+ * Coalesced SVC fetch and save of one city for the background jobs (refresh scheduler, warm-up),
+ * implemented by the cache service of the active web stack so they share its inflight calls.
+ * Blocks the calling thread (the jobs run on their own virtual threads, never on an event loop).
+ */
+public interface CityRefresher {
+
+    /**
+     * Joins a miss or background refresh already in flight for the city instead of making a second SVC call.
+     * Saves (and re-arms) the city, throws when the SVC fails or returns no data, in which case nothing is saved.
+     */
+    void refresh(String city);
+}
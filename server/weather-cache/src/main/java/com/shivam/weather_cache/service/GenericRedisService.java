@@ -1,17 +1,129 @@
 package com.shivam.weather_cache.service;
 
+import com.shivam.weather_cache.dto.CacheEntry;
+import com.shivam.weather_cache.dto.EncodedBody;
+
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface GenericRedisService {
 
-    void saveWithMeta(String key, Object value, boolean refresh);
+    /**
+     * Saves the value and its meta. In bytes serve mode only the pre-encoded response body is stored, not the value.
+     * {@code fetchMillis} is how long the SVC call took (used for probabilistic early refresh).
+     */
+    void saveWithMeta(String key, Object value, boolean refresh, long fetchMillis);
+
+    /**
+     * Same as {@link #saveWithMeta(String, Object, boolean, long)} with an already encoded body (null = none)
+     * and content hash (ETag) of the value.
+     */
+    void saveWithMeta(String key, Object value, EncodedBody body, String etag, boolean refresh, long fetchMillis);
 
     Object getAndUpdateMeta(String key);
 
+    /**
+     * Value plus the meta fields needed on the read path (savedAt, fetchMillis, expiresAt), in one round trip, counts the hit.
+     * In bytes serve mode the value is decoded from the stored body.
+     */
+    CacheEntry<Object> getEntryAndUpdateMeta(String key);
+
+    /**
+     * Batch variant of {@link #getEntryAndUpdateMeta}: one MGET for the values plus pipelined meta reads,
+     * hits are counted with pipelined meta updates. Same order as the keys, null for a miss.
+     */
+    List<CacheEntry<Object>> getEntriesAndUpdateMeta(List<String> keys);
+
+    /**
+     * Entry meta fields only (savedAt, fetchMillis, expiresAt, etag), the value is never transferred.
+     * Null when the city is not cached (or Redis is unavailable). Does not count a hit.
+     */
+    Map<String, Object> getEntryMeta(String key);
+
+    /**
+     * Raw pre-encoded response body of a city (no deserialization), counts the hit like {@link #getAndUpdateMeta}.
+     * During the migration window after startup ({@code cache.legacy_data_fallback_seconds}) a city without a body
+     * is also looked up under its legacy data key and encoded once.
+     */
+    CacheEntry<byte[]> getBodyAndUpdateMeta(String key);
+
+    /**
+     * Batch variant of {@link #getBodyAndUpdateMeta} (raw bodies, no legacy data fallback), same order as the keys.
+     */
+    List<CacheEntry<byte[]>> getBodiesAndUpdateMeta(List<String> keys);
+
+    /**
+     * Key holding the stored form of a city in the current serve mode (body in bytes mode, else data).
+     */
+    String valueKey(String key);
+
+    /**
+     * Counts a cache hit in-process, see {@link #flushHits}.
+     */
+    void recordHit(String key);
+
+    /**
+     * Applies buffered hits to the meta hashes in one pipelined round trip.
+     */
+    void flushHits(Map<String, HitCounterBuffer.HitSnapshot> hits);
+
+    // ---- Popularity sketch (count-min, shared by all replicas) ----
+
+    /**
+     * Adds local sketch increments (cell index → count) to the shared sketch in one pipelined round trip.
+     */
+    void flushPopularity(Map<Integer, Long> cells);
+
+    /**
+     * Decayed popularity score per city from the shared sketch, same order as the keys.
+     */
+    List<Long> getPopularity(List<String> keys);
+
+    /**
+     * Halves the shared sketch if the decay interval has elapsed since the last decay (by any replica).
+     *
+     * @return true if the sketch was halved
+     */
+    boolean decayPopularity(long intervalMs);
+
     Map<Object, Object> getMeta(String key);
 
+    /**
+     * Multi-get meta hashes in one pipelined round trip, same order as the keys.
+     */
+    List<Map<Object, Object>> getMetaBatch(List<String> keys);
+
+    /**
+     * Blocking KEYS command, avoid on large keyspaces, use {@link #scanKeys} instead.
+     */
     Set<String> getAllKeys(String pattern);
 
+    /**
+     * Cursor based (SCAN) walk over the keyspace, handing keys to the consumer page by page.
+     * Non-blocking for Redis, memory bounded by the page size.
+     */
+    void scanKeys(String pattern, int pageSize, Consumer<List<String>> pageConsumer);
+
     void deleteKey(String key);
+
+    // ---- Refresh-due index (ZSET scored by next due time) ----
+
+    /**
+     * City keys whose refresh is due at or before {@code now}, earliest first, skipping the first {@code offset}.
+     */
+    List<String> getDueKeys(long now, long offset, int limit);
+
+    /**
+     * Schedules the next refresh check of a city.
+     */
+    void rearmRefresh(String key, long dueAt);
+
+    void removeFromRefreshIndex(String key);
+
+    /**
+     * Adds the cities to the index only if they are not already there (ZADD NX), pipelined.
+     */
+    void indexIfAbsent(List<String> keys, long dueAt);
 }
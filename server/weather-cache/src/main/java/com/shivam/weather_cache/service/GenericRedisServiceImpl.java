@@ -1,15 +1,32 @@
 package com.shivam.weather_cache.service;
 
+import com.shivam.weather_cache.dto.CacheEntry;
+import com.shivam.weather_cache.dto.EncodedBody;
+import com.shivam.weather_cache.utils.AppConstants;
+import com.shivam.weather_cache.utils.CacheMetrics;
+import com.shivam.weather_cache.utils.RedisCircuitBreaker;
+import com.shivam.weather_cache.utils.ResponseBodyEncoder;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ExpirationOptions;
+import org.springframework.data.redis.connection.RedisZSetCommands;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -18,102 +35,575 @@ public class GenericRedisServiceImpl implements GenericRedisService {
     @Value("${spring.redis.ttl}")
     private long cacheTTL;
 
+    // Earliest a city can become due (HOT interval), the scheduler re-arms it per tier
+    @Value("${schedular.hot_refresh_interval}")
+    private long hotRefreshInterval;
+
+    // "buffered" = GET + in-process hit counter, "lua" = read-and-touch script (EVALSHA) in one atomic round trip
+    @Value("${redis.hit_path}")
+    private String hitPath;
+
+    @Value("${redis.hit_ttl_extension_seconds}")
+    private long hitTtlExtensionSeconds;
+
+    // bytes mode: how long after startup a city without a body is still looked up under the legacy data key
+    @Value("${cache.legacy_data_fallback_seconds}")
+    private long legacyDataFallbackSeconds;
+
+    private final long startedAt = System.currentTimeMillis();
+
+    // Meta fields returned together with the value on a hit
+    private static final List<String> ENTRY_META_FIELDS = List.of("savedAt", "fetchMillis", "expiresAt", "etag");
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> readAndTouchScript =
+            RedisScript.of(new ClassPathResource("scripts/read_and_touch.lua"), List.class);
+    private final RedisScript<Long> sketchDecayScript =
+            RedisScript.of(new ClassPathResource("scripts/sketch_decay.lua"), Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> bytesRedisTemplate;
+    // Index members are plain strings, independent of the value serializer
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NearCacheService nearCacheService;
+    private final HitCounterBuffer hitCounterBuffer;
+    private final PopularitySketch popularitySketch;
+    private final ResponseBodyEncoder bodyEncoder;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    // Latency of the hot Redis paths: single reads (incl. the lua meta touch), batch reads, meta-only reads (conditional GETs),
+    // buffered meta updates, saves
+    private final Timer getTimer;
+    private final Timer getBatchTimer;
+    private final Timer getMetaTimer;
+    private final Timer metaUpdateTimer;
+    private final Timer saveTimer;
 
     @Autowired
-    public GenericRedisServiceImpl(RedisTemplate<String, Object> redisTemplate) {
+    public GenericRedisServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                   RedisTemplate<String, byte[]> bytesRedisTemplate,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   NearCacheService nearCacheService,
+                                   HitCounterBuffer hitCounterBuffer,
+                                   PopularitySketch popularitySketch,
+                                   ResponseBodyEncoder bodyEncoder,
+                                   RedisCircuitBreaker redisCircuitBreaker,
+                                   CacheMetrics cacheMetrics) {
         this.redisTemplate = redisTemplate;
+        this.bytesRedisTemplate = bytesRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.nearCacheService = nearCacheService;
+        this.hitCounterBuffer = hitCounterBuffer;
+        this.popularitySketch = popularitySketch;
+        this.bodyEncoder = bodyEncoder;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.getTimer = cacheMetrics.redis("get");
+        this.getBatchTimer = cacheMetrics.redis("get_batch");
+        this.getMetaTimer = cacheMetrics.redis("get_meta");
+        this.metaUpdateTimer = cacheMetrics.redis("meta_update");
+        this.saveTimer = cacheMetrics.redis("save");
+    }
+
+    /**
+     * Preloads the hit script so the first hit is already an EVALSHA.
+     * If Redis is not reachable yet the executor falls back to EVAL once and caches the script.
+     */
+    @PostConstruct
+    void loadScripts() {
+        if (!isLuaHitPath()) return;
+        try {
+            String sha = redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(readAndTouchScript.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+            log.info("Loaded read-and-touch script, sha={}", sha);
+        } catch (Exception ex) {
+            log.warn("Could not preload read-and-touch script: {}", ex.getMessage());
+        }
     }
 
     @Override
-    public void saveWithMeta(String key, Object value, boolean refresh) {
+    public void saveWithMeta(String key, Object value, boolean refresh, long fetchMillis) {
+        saveWithMeta(key, value, bodyEncoder.encodeIfEnabled(value), bodyEncoder.etag(value), refresh, fetchMillis);
+    }
+
+    @Override
+    public void saveWithMeta(String key, Object value, EncodedBody body, String etag, boolean refresh, long fetchMillis) {
         log.info("Saving weather data in redis for {} with TTL={}s Refresh :{}", key,cacheTTL,refresh);
-        try {
-            redisTemplate.execute(new SessionCallback<Object>() {
+        redisCircuitBreaker.guarded("saveWithMeta for key '" + key + "'", () -> {
+            saveTimer.record(() -> redisTemplate.execute(new SessionCallback<Object>() {
                 @Override
                 public Object execute(@NotNull RedisOperations operations) throws DataAccessException {
                     operations.multi();
                     ValueOperations<String, Object> valueOps = redisTemplate.opsForValue();
                     HashOperations<String, String, Object> hashOps = redisTemplate.opsForHash();
+                    long now = Instant.now().toEpochMilli();
 
-                    valueOps.set(key + ":data", value);
+                    // One stored form per city: the body in bytes mode (the map is decoded from it on demand), else the value
+                    if (body != null) {
+                        // Same bound connection, still part of this MULTI
+                        bytesRedisTemplate.opsForValue().set(key + AppConstants.RedisKeys.BODY_SUFFIX,
+                                body.getBytes(), java.time.Duration.ofSeconds(cacheTTL));
+                        redisTemplate.delete(key + AppConstants.RedisKeys.DATA_SUFFIX);
+                    } else {
+                        valueOps.set(key + AppConstants.RedisKeys.DATA_SUFFIX, value, java.time.Duration.ofSeconds(cacheTTL));
+                        redisTemplate.delete(key + AppConstants.RedisKeys.BODY_SUFFIX);
+                    }
                     hashOps.put(key + ":meta", "hits", 1);
-                    hashOps.put(key + ":meta", "lastAccess", Instant.now().toEpochMilli());
+                    hashOps.put(key + ":meta", "lastAccess", now);
+                    hashOps.put(key + ":meta", "savedAt", now);
+                    hashOps.put(key + ":meta", "fetchMillis", fetchMillis);
+                    hashOps.put(key + ":meta", "expiresAt", now + cacheTTL * 1000);
+                    if (etag != null) {
+                        hashOps.put(key + ":meta", "etag", etag);
+                    } else {
+                        hashOps.delete(key + ":meta", "etag");
+                    }
                     if(refresh){
-                        hashOps.put(key + ":meta", "lastRefresh", Instant.now().toEpochMilli());
+                        hashOps.put(key + ":meta", "lastRefresh", now);
                     }
 
-                    redisTemplate.expire(key + ":data", java.time.Duration.ofSeconds(cacheTTL));
                     redisTemplate.expire(key + ":meta", java.time.Duration.ofSeconds(cacheTTL));
+                    stringRedisTemplate.opsForZSet().add(AppConstants.RedisKeys.REFRESH_DUE_INDEX, key, now + hotRefreshInterval);
                     return operations.exec();
                 }
-            });
-        } catch (Exception ex) {
-            log.error("Error in saveWithMeta for key '{}'", key, ex);
-        }
+            }));
+        });
+        // Other replicas drop their stale L1 copy, the publish is guarded on its own
+        nearCacheService.invalidate(key);
     }
 
     @Override
     public Object getAndUpdateMeta(String key) {
+        CacheEntry<Object> entry = getEntryAndUpdateMeta(key);
+        return entry == null ? null : entry.getValue();
+    }
+
+    @Override
+    public CacheEntry<Object> getEntryAndUpdateMeta(String key) {
         log.info("Get and update the meta data for {}",key);
-        try {
-            ValueOperations<String, Object> valueOps = redisTemplate.opsForValue();
-            Object value = valueOps.get(key + ":data");
-
-            if (value != null) {
-                log.info("Cache HIT for city: {}", key);
-                redisTemplate.execute(new SessionCallback<Object>() {
-                    @Override
-                    public Object execute(@NotNull RedisOperations operations) throws DataAccessException {
-                        operations.multi();
-                        HashOperations<String, String, Object> hashOps = redisTemplate.opsForHash();
-                        hashOps.increment(key + ":meta", "hits", 1);
-                        hashOps.put(key + ":meta", "lastAccess", Instant.now().toEpochMilli());
-                        return operations.exec();
-                    }
-                });
+        return redisCircuitBreaker.guarded("getEntryAndUpdateMeta for key '" + key + "'",
+                () -> getTimer.record(() -> readEntry(key, valueKey(key), valueDecoder())),
+                () -> null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CacheEntry<byte[]> getBodyAndUpdateMeta(String key) {
+        return redisCircuitBreaker.guarded("getBodyAndUpdateMeta for key '" + key + "'", () -> getTimer.record(() -> {
+            CacheEntry<byte[]> entry = readEntry(key, key + AppConstants.RedisKeys.BODY_SUFFIX, bytes -> bytes);
+            if (entry != null || !isLegacyDataFallbackOpen()) {
+                return entry;
             }
-            return value;
-        } catch (Exception ex) {
-            log.error("Error in getAndUpdateMeta for key '{}'", key, ex);
+            // Entry written before bytes mode was switched on: encode the data value once, the next save drops it
+            RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+            CacheEntry<Object> legacy = readEntry(key, key + AppConstants.RedisKeys.DATA_SUFFIX, valueSerializer::deserialize);
+            return legacy == null ? null : legacy.withValue(value -> bodyEncoder.encode(value).getBytes());
+        }), () -> null);
+    }
+
+    @Override
+    public String valueKey(String key) {
+        return key + (bodyEncoder.isEnabled() ? AppConstants.RedisKeys.BODY_SUFFIX : AppConstants.RedisKeys.DATA_SUFFIX);
+    }
+
+    /**
+     * Object form of the stored value: the value serializer, or the decoded body in bytes mode.
+     */
+    @SuppressWarnings("unchecked")
+    private Function<byte[], Object> valueDecoder() {
+        if (bodyEncoder.isEnabled()) {
+            return bodyEncoder::decode;
+        }
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer())::deserialize;
+    }
+
+    /**
+     * Legacy data keys expire within one TTL, after that a missing body is a plain miss (one GET, not two).
+     */
+    private boolean isLegacyDataFallbackOpen() {
+        return System.currentTimeMillis() - startedAt < legacyDataFallbackSeconds * 1000;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getEntryMeta(String key) {
+        RedisSerializer<String> keySerializer = StringRedisSerializer.UTF_8;
+        byte[][] fields = entryMetaFields();
+
+        return redisCircuitBreaker.guarded("getEntryMeta for key '" + key + "'", () -> {
+            // EXISTS instead of GET: meta can briefly outlive the data, the value itself is not needed
+            List<Object> results = getMetaTimer.record(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.keyCommands().exists(keySerializer.serialize(valueKey(key)));
+                connection.hashCommands().hMGet(keySerializer.serialize(key + ":meta"), fields);
+                return null;
+            }, null));
+
+            if (!Boolean.TRUE.equals(results.get(0))) {
+                return null;
+            }
+            Object meta = results.get(1);
+            return decodeMeta(meta instanceof List ? (List<byte[]>) meta : Collections.emptyList());
+        }, () -> null);
+    }
+
+    /**
+     * Reads {@code valueKey} (data or body key of the city) and the entry meta fields, counting the hit.
+     * - lua: read-and-touch script (EVALSHA)
+     * - buffered: GET + HMGET pipelined, hit goes to the in-process counter
+     */
+    private <T> CacheEntry<T> readEntry(String key, String valueKey, Function<byte[], T> valueDecoder) {
+        List<byte[]> raw = isLuaHitPath() ? readAndTouch(key, valueKey) : readPipelined(key, valueKey);
+        if (raw == null || raw.isEmpty() || raw.get(0) == null) {
+            return null;
+        }
+
+        T value = valueDecoder.apply(raw.get(0));
+        if (value == null) {
+            return null;
+        }
+        if (isLuaHitPath()) {
+            // Meta was touched by the script, only the popularity sketch is left
+            popularitySketch.record(key);
+        } else {
+            recordHit(key);
+        }
+        log.info("Cache HIT for city: {}", key);
+        return new CacheEntry<>(value, decodeMeta(raw.subList(1, raw.size())));
+    }
+
+    @Override
+    public List<CacheEntry<Object>> getEntriesAndUpdateMeta(List<String> keys) {
+        return readEntries("getEntriesAndUpdateMeta", keys, this::valueKey, valueDecoder());
+    }
+
+    @Override
+    public List<CacheEntry<byte[]>> getBodiesAndUpdateMeta(List<String> keys) {
+        return readEntries("getBodiesAndUpdateMeta", keys, key -> key + AppConstants.RedisKeys.BODY_SUFFIX, bytes -> bytes);
+    }
+
+    /**
+     * One MGET of the value keys plus pipelined meta reads, hits are counted like {@link #readEntry}.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<CacheEntry<T>> readEntries(String operation, List<String> keys, Function<String, String> valueKey,
+                                                Function<byte[], T> valueDecoder) {
+        if (keys.isEmpty()) return Collections.emptyList();
+        RedisSerializer<String> keySerializer = StringRedisSerializer.UTF_8;
+        byte[][] dataKeys = keys.stream().map(key -> keySerializer.serialize(valueKey.apply(key))).toArray(byte[][]::new);
+        byte[][] fields = entryMetaFields();
+
+        Map<String, HitCounterBuffer.HitSnapshot> hits = new HashMap<>();
+        List<CacheEntry<T>> entries = redisCircuitBreaker.guarded(operation + " for " + keys.size() + " keys", () -> {
+            List<Object> results = getBatchTimer.record(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().mGet(dataKeys);
+                for (String key : keys) {
+                    connection.hashCommands().hMGet(keySerializer.serialize(key + ":meta"), fields);
+                }
+                return null;
+            }, null));
+
+            List<byte[]> values = results.get(0) instanceof List ? (List<byte[]>) results.get(0) : Collections.emptyList();
+            List<CacheEntry<T>> read = new ArrayList<>(keys.size());
+            long now = Instant.now().toEpochMilli();
+
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] raw = i < values.size() ? values.get(i) : null;
+                T value = raw == null ? null : valueDecoder.apply(raw);
+                if (value == null) {
+                    read.add(null);
+                    continue;
+                }
+                Object meta = results.get(i + 1);
+                read.add(new CacheEntry<>(value, decodeMeta(meta instanceof List ? (List<byte[]>) meta : Collections.emptyList())));
+                hits.put(keys.get(i), new HitCounterBuffer.HitSnapshot(1, now));
+            }
+
+            log.info("Batch read of {} keys, {} HIT", keys.size(), hits.size());
+            return read;
+        }, () -> {
+            hits.clear();
+            return Collections.nCopies(keys.size(), null);
+        });
+
+        if (isLuaHitPath() && !hits.isEmpty()) {
+            // No buffering on this path, apply the hits right away (one pipelined round trip, guarded on its own)
+            flushHits(hits);
+            hits.keySet().forEach(popularitySketch::record);
+        } else {
+            hits.keySet().forEach(this::recordHit);
+        }
+        return entries;
+    }
+
+    private byte[][] entryMetaFields() {
+        return ENTRY_META_FIELDS.stream().map(StringRedisSerializer.UTF_8::serialize).toArray(byte[][]::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<byte[]> readPipelined(String key, String valueKey) {
+        RedisSerializer<String> keySerializer = StringRedisSerializer.UTF_8;
+        byte[][] fields = entryMetaFields();
+
+        // null result serializer = raw replies, value and meta use different serializers
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().get(keySerializer.serialize(valueKey));
+            connection.hashCommands().hMGet(keySerializer.serialize(key + ":meta"), fields);
             return null;
+        }, null);
+
+        List<byte[]> raw = new ArrayList<>(1 + fields.length);
+        raw.add((byte[]) results.get(0));
+        Object meta = results.get(1);
+        raw.addAll(meta instanceof List ? (List<byte[]>) meta : Collections.nCopies(fields.length, null));
+        return raw;
+    }
+
+    /**
+     * Runs the read-and-touch script, reply = [value, meta fields...] or null on a miss.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<byte[]> readAndTouch(String key, String valueKey) {
+        long now = Instant.now().toEpochMilli();
+        List<String> args = new ArrayList<>(4 + ENTRY_META_FIELDS.size());
+        args.add(String.valueOf(now));
+        args.add(String.valueOf(hitTtlExtensionSeconds));
+        args.add(String.valueOf(now + hotRefreshInterval));
+        args.add(key);
+        args.addAll(ENTRY_META_FIELDS);
+
+        // Multi-bulk replies are deserialized element by element, byte[] keeps them raw
+        RedisSerializer<List> elementSerializer = (RedisSerializer<List>) (RedisSerializer<?>) RedisSerializer.byteArray();
+        return (List<byte[]>) redisTemplate.execute(
+                readAndTouchScript,
+                StringRedisSerializer.UTF_8,
+                elementSerializer,
+                List.of(valueKey, key + ":meta", AppConstants.RedisKeys.REFRESH_DUE_INDEX),
+                args.toArray());
+    }
+
+    private Map<String, Object> decodeMeta(List<byte[]> raw) {
+        RedisSerializer<?> hashValueSerializer = redisTemplate.getHashValueSerializer();
+        Map<String, Object> meta = new HashMap<>();
+        for (int i = 0; i < ENTRY_META_FIELDS.size() && i < raw.size(); i++) {
+            byte[] bytes = raw.get(i);
+            if (bytes == null) continue;
+            try {
+                meta.put(ENTRY_META_FIELDS.get(i), hashValueSerializer.deserialize(bytes));
+            } catch (Exception ex) {
+                // Written by the script as plain text
+                meta.put(ENTRY_META_FIELDS.get(i), new String(bytes, StandardCharsets.UTF_8));
+            }
         }
+        return meta;
+    }
+
+    private boolean isLuaHitPath() {
+        return "lua".equalsIgnoreCase(hitPath);
+    }
+
+    @Override
+    public void recordHit(String key) {
+        hitCounterBuffer.record(key, Instant.now().toEpochMilli());
+    }
+
+    @Override
+    public void flushHits(Map<String, HitCounterBuffer.HitSnapshot> hits) {
+        RedisSerializer<String> keySerializer = StringRedisSerializer.UTF_8;
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> hashValueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+        byte[] hitsField = keySerializer.serialize("hits");
+        byte[] lastAccessField = keySerializer.serialize("lastAccess");
+        byte[] index = keySerializer.serialize(AppConstants.RedisKeys.REFRESH_DUE_INDEX);
+
+        redisCircuitBreaker.guarded("flushHits of " + hits.size() + " buffered hit counters", () -> {
+            metaUpdateTimer.record(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<String, HitCounterBuffer.HitSnapshot> entry : hits.entrySet()) {
+                    String key = entry.getKey();
+                    HitCounterBuffer.HitSnapshot hit = entry.getValue();
+                    byte[] metaKey = keySerializer.serialize(key + ":meta");
+
+                    connection.hashCommands().hIncrBy(metaKey, hitsField, hit.hits());
+                    connection.hashCommands().hSet(metaKey, lastAccessField, hashValueSerializer.serialize(hit.lastAccess()));
+                    // Meta may have expired since the hit, never leave it without a TTL
+                    connection.keyCommands().expire(metaKey, cacheTTL, ExpirationOptions.Condition.NX);
+                    // Re-enters the index if the scheduler dropped it as LOW, keeps an existing due time
+                    connection.zSetCommands().zAdd(index, hit.lastAccess() + hotRefreshInterval,
+                            keySerializer.serialize(key), RedisZSetCommands.ZAddArgs.ifNotExists());
+                }
+                return null;
+            }));
+        });
+    }
+
+    @Override
+    public void flushPopularity(Map<Integer, Long> cells) {
+        redisCircuitBreaker.guarded("flushPopularity of " + cells.size() + " sketch cells", () -> {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byte[] sketch = StringRedisSerializer.UTF_8.serialize(AppConstants.RedisKeys.POPULARITY_SKETCH);
+                for (Map.Entry<Integer, Long> cell : cells.entrySet()) {
+                    connection.hashCommands().hIncrBy(sketch,
+                            StringRedisSerializer.UTF_8.serialize(String.valueOf(cell.getKey())), cell.getValue());
+                }
+                return null;
+            });
+        });
     }
 
+    @Override
+    public List<Long> getPopularity(List<String> keys) {
+        if (keys.isEmpty()) return Collections.emptyList();
+        return redisCircuitBreaker.guarded("getPopularity for " + keys.size() + " keys", () -> {
+            List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public Object execute(@NotNull RedisOperations operations) throws DataAccessException {
+                    HashOperations<String, String, String> hashOps = operations.opsForHash();
+                    for (String key : keys) {
+                        List<String> fields = Arrays.stream(popularitySketch.cellIndexes(key)).mapToObj(String::valueOf).toList();
+                        hashOps.multiGet(AppConstants.RedisKeys.POPULARITY_SKETCH, fields);
+                    }
+                    return null;
+                }
+            });
+
+            List<Long> scores = new ArrayList<>(keys.size());
+            for (Object result : results) {
+                // Count-min estimate: smallest of the key's cells, a missing cell means 0
+                long min = Long.MAX_VALUE;
+                for (Object cell : result instanceof List ? (List<?>) result : Collections.emptyList()) {
+                    min = Math.min(min, cell == null ? 0L : Long.parseLong(cell.toString()));
+                }
+                scores.add(min == Long.MAX_VALUE ? 0L : min);
+            }
+            return scores;
+        }, () -> Collections.nCopies(keys.size(), 0L));
+    }
+
+    @Override
+    public boolean decayPopularity(long intervalMs) {
+        return redisCircuitBreaker.guarded("decayPopularity", () -> {
+            Long left = stringRedisTemplate.execute(sketchDecayScript,
+                    List.of(AppConstants.RedisKeys.POPULARITY_SKETCH, AppConstants.RedisKeys.POPULARITY_DECAYED_AT),
+                    String.valueOf(Instant.now().toEpochMilli()), String.valueOf(intervalMs));
+            if (left == null || left < 0) {
+                return false;
+            }
+            log.info("Popularity sketch halved, {} non-zero cells left", left);
+            return true;
+        }, () -> false);
+    }
 
     @Override
     public Map<Object, Object> getMeta(String key) {
 //        log.info("Fetching the meta data for {}",key);
-        try {
+        return redisCircuitBreaker.guarded("getMeta for key '" + key + "'", () -> {
             HashOperations<String, Object, Object> hashOps = redisTemplate.opsForHash();
             Map<Object, Object> metaData = hashOps.entries(key + ":meta");
             return metaData.isEmpty() ? Collections.emptyMap() : metaData;
-        } catch (Exception ex) {
-            log.error("Error in getMeta for key '{}'", key, ex);
-            return Collections.emptyMap();
-        }
+        }, Collections::emptyMap);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Map<Object, Object>> getMetaBatch(List<String> keys) {
+        if (keys.isEmpty()) return Collections.emptyList();
+        return redisCircuitBreaker.guarded("getMetaBatch for " + keys.size() + " keys", () -> {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public Object execute(@NotNull RedisOperations operations) throws DataAccessException {
+                    for (String key : keys) {
+                        operations.opsForHash().entries(key + ":meta");
+                    }
+                    return null;
+                }
+            });
+
+            List<Map<Object, Object>> metas = new ArrayList<>(keys.size());
+            for (Object result : results) {
+                metas.add(result instanceof Map ? (Map<Object, Object>) result : Collections.emptyMap());
+            }
+            return metas;
+        }, () -> Collections.nCopies(keys.size(), Collections.emptyMap()));
     }
 
     @Override
     public Set<String> getAllKeys(String pattern) {
         log.info("Fetching all the keys from redis");
-        try {
-            return redisTemplate.keys(pattern);
-        } catch (Exception ex) {
-            log.error("Error getting keys for pattern '{}'", pattern, ex);
-            return Collections.emptySet();
-        }
+        return redisCircuitBreaker.guarded("getAllKeys for pattern '" + pattern + "'",
+                () -> redisTemplate.keys(pattern), Collections::emptySet);
     }
 
+    /**
+     * Each page fetch is its own breaker call, the consumer runs outside of it: its own Redis calls are guarded
+     * separately and its failures or duration are not counted against the SCAN.
+     */
+    @Override
+    public void scanKeys(String pattern, int pageSize, Consumer<List<String>> pageConsumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(pageSize).build();
+        String operation = "scanKeys for pattern '" + pattern + "'";
+        Cursor<String> cursor = redisCircuitBreaker.guarded(operation, () -> redisTemplate.scan(options), () -> null);
+        if (cursor == null) return;
+        try (cursor) {
+            while (true) {
+                // Null = failed or breaker open, the walk stops and the next run starts over
+                List<String> page = redisCircuitBreaker.guarded(operation, () -> {
+                    List<String> keys = new ArrayList<>(pageSize);
+                    while (keys.size() < pageSize && cursor.hasNext()) {
+                        keys.add(cursor.next());
+                    }
+                    return keys;
+                }, () -> null);
+                if (page == null || page.isEmpty()) return;
+                pageConsumer.accept(page);
+            }
+        }
+    }
 
     @Override
     public void deleteKey(String key) {
-        try {
+        redisCircuitBreaker.guarded("deleteKey for key '" + key + "'", () -> {
             redisTemplate.delete(key + ":data");
             redisTemplate.delete(key + ":meta");
+            redisTemplate.delete(key + AppConstants.RedisKeys.BODY_SUFFIX);
+        });
+        // Guarded calls of their own, not nested in the delete
+        removeFromRefreshIndex(key);
+        nearCacheService.invalidate(key);
+    }
 
-        } catch (Exception ex) {
-            log.error("Error deleting key '{}'", key, ex);
-        }
+    @Override
+    public List<String> getDueKeys(long now, long offset, int limit) {
+        return redisCircuitBreaker.guarded("getDueKeys", () -> {
+            Set<String> due = stringRedisTemplate.opsForZSet()
+                    .rangeByScore(AppConstants.RedisKeys.REFRESH_DUE_INDEX, Double.NEGATIVE_INFINITY, now, offset, limit);
+            return due == null ? Collections.<String>emptyList() : new ArrayList<>(due);
+        }, Collections::emptyList);
+    }
+
+    @Override
+    public void rearmRefresh(String key, long dueAt) {
+        redisCircuitBreaker.guarded("rearmRefresh for key '" + key + "'",
+                () -> stringRedisTemplate.opsForZSet().add(AppConstants.RedisKeys.REFRESH_DUE_INDEX, key, dueAt));
+    }
+
+    @Override
+    public void removeFromRefreshIndex(String key) {
+        redisCircuitBreaker.guarded("removeFromRefreshIndex for key '" + key + "'",
+                () -> stringRedisTemplate.opsForZSet().remove(AppConstants.RedisKeys.REFRESH_DUE_INDEX, key));
+    }
+
+    @Override
+    public void indexIfAbsent(List<String> keys, long dueAt) {
+        if (keys.isEmpty()) return;
+        redisCircuitBreaker.guarded("indexIfAbsent for " + keys.size() + " keys", () -> {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(@NotNull RedisOperations operations) throws DataAccessException {
+                    for (String key : keys) {
+                        operations.opsForZSet().addIfAbsent(AppConstants.RedisKeys.REFRESH_DUE_INDEX, key, dueAt);
+                    }
+                    return null;
+                }
+            });
+        });
     }
 }
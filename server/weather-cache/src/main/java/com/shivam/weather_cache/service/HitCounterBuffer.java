@@ -0,0 +1,71 @@
+package com.shivam.weather_cache.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process hit accounting, flushed to the Redis meta hashes in batches.
+ * - record() is lock-free (one atomic add per hit), no Redis call on the read path.
+ * - drain() hands over everything recorded since the previous drain: counters are read and reset atomically and
+ *   stay in the map, a counter is only dropped after a drain interval without hits.
+ * - A dropped counter is retired first, a record() that still holds it sees that and retries on a fresh one,
+ *   so no hit is lost between record() and drain().
+ * - On a crash at most one flush interval of hits is lost, which only delays HOT/MEDIUM classification.
+ * - Every hit also feeds the {@link PopularitySketch} used for tiering.
+ */
+@Component
+@RequiredArgsConstructor
+public class HitCounterBuffer {
+
+    private final PopularitySketch popularitySketch;
+
+    public record HitSnapshot(long hits, long lastAccess) {}
+
+    // Counter value of a retired counter, far enough below 0 that late increments never bring it back
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private static final class Counter {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong lastAccess = new AtomicLong();
+    }
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public void record(String key, long now) {
+        while (true) {
+            Counter counter = counters.computeIfAbsent(key, k -> new Counter());
+            // lastAccess first, a drain that sees the hit also sees its time, racing hits keep the latest one
+            counter.lastAccess.accumulateAndGet(now, Math::max);
+            if (counter.hits.getAndIncrement() >= 0) {
+                break;
+            }
+            // Retired by drain() after we looked it up, it is (being) removed, count on its replacement
+            counters.remove(key, counter);
+        }
+        popularitySketch.record(key);
+    }
+
+    public synchronized Map<String, HitSnapshot> drain() {
+        Map<String, HitSnapshot> snapshot = new HashMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long hits = counter.hits.getAndSet(0);
+            if (hits > 0) {
+                snapshot.put(entry.getKey(), new HitSnapshot(hits, counter.lastAccess.get()));
+            } else if (hits == 0 && counter.hits.compareAndSet(0, RETIRED)) {
+                // Idle for a whole interval, only retired if still no hit arrived since the reset above
+                counters.remove(entry.getKey(), counter);
+            }
+        }
+        return snapshot;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+}
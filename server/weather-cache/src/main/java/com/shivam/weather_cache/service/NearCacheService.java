@@ -0,0 +1,22 @@
+package com.shivam.weather_cache.service;
+
+/**
+ * In-process (L1) cache sitting in front of Redis.
+ * Entries are invalidated across replicas through Redis pub/sub.
+ */
+public interface NearCacheService {
+
+    Object get(String key);
+
+    void put(String key, Object value);
+
+    /**
+     * Evicts the key locally and notifies all other replicas to evict it too.
+     */
+    void invalidate(String key);
+
+    /**
+     * Evicts the key from this replica only.
+     */
+    void evictLocal(String key);
+}
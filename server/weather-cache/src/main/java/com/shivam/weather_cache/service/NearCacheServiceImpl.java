@@ -0,0 +1,147 @@
+package com.shivam.weather_cache.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shivam.weather_cache.dto.CacheEntry;
+import com.shivam.weather_cache.dto.EncodedBody;
+import com.shivam.weather_cache.utils.AppConstants;
+import com.shivam.weather_cache.utils.InstanceIdentity;
+import com.shivam.weather_cache.utils.RedisCircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caffeine backed near cache.
+ * - Bounded by estimated size in bytes, W-TinyLFU admission keeps HOT cities resident.
+ * - Short expire-after-write acts as a safety net if an invalidation message is lost.
+ * - Invalidation message format: "instanceId|key" on channel {@code near_cache.channel}.
+ */
+@Slf4j
+@Service
+public class NearCacheServiceImpl implements NearCacheService {
+
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final InstanceIdentity instanceIdentity;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    @Value("${near_cache.enabled}")
+    private boolean enabled;
+
+    @Value("${near_cache.max_bytes}")
+    private long maxBytes;
+
+    @Value("${near_cache.ttl_seconds}")
+    private long ttlSeconds;
+
+    @Value("${near_cache.channel}")
+    private String channel;
+
+    private Cache<String, Object> cache;
+
+    public NearCacheServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                InstanceIdentity instanceIdentity,
+                                RedisCircuitBreaker redisCircuitBreaker) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.instanceIdentity = instanceIdentity;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Object value) -> (int) Math.min(Integer.MAX_VALUE, estimateBytes(value)))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        if (enabled) {
+            listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(channel));
+            log.info("Near cache enabled → maxBytes={}, ttl={}s, channel={}", maxBytes, ttlSeconds, channel);
+        }
+    }
+
+    @Override
+    public Object get(String key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        if (enabled && value != null) {
+            cache.put(key, value);
+        }
+    }
+
+    @Override
+    public void invalidate(String key) {
+        if (!enabled) return;
+        evictLocal(key);
+        redisCircuitBreaker.guarded("near cache invalidation publish for '" + key + "'",
+                () -> stringRedisTemplate.convertAndSend(channel, instanceIdentity.getId() + SEPARATOR + key));
+    }
+
+    @Override
+    public void evictLocal(String key) {
+        if (enabled) {
+            // A city can be held both as decoded map and as pre-encoded body
+            cache.invalidateAll(List.of(key, key + AppConstants.RedisKeys.BODY_SUFFIX));
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int idx = body.indexOf(SEPARATOR);
+        if (idx < 0) return;
+
+        String origin = body.substring(0, idx);
+        if (origin.equals(instanceIdentity.getId())) {
+            return; // already handled locally
+        }
+        evictLocal(body.substring(idx + 1));
+    }
+
+    /**
+     * Rough heap size of a decoded JSON value (maps, lists, strings, numbers).
+     * Only needs to be proportional, it drives the size bound of the cache.
+     */
+    static long estimateBytes(Object value) {
+        if (value == null) return 0;
+        if (value instanceof String s) return 40L + 2L * s.length();
+        if (value instanceof byte[] b) return 16L + b.length;
+        if (value instanceof EncodedBody body) return 32L + body.getBytes().length;
+        if (value instanceof CacheEntry<?> entry) return 64L + estimateBytes(entry.getValue()) + estimateBytes(entry.getMeta());
+        if (value instanceof Number || value instanceof Boolean) return 16;
+        if (value instanceof Map<?, ?> map) {
+            long size = 64;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                size += 32 + estimateBytes(e.getKey()) + estimateBytes(e.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> list) {
+            long size = 40;
+            for (Object item : list) {
+                size += 8 + estimateBytes(item);
+            }
+            return size;
+        }
+        return 64;
+    }
+}
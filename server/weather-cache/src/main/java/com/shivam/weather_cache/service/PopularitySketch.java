@@ -0,0 +1,54 @@
+package com.shivam.weather_cache.service;
+
+import com.shivam.weather_cache.utils.CountMinSketch;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Per-city popularity used for HOT / MEDIUM / LOW tiering:
+ * - Every hit increments a local count-min sketch, memory is bounded by width x depth, not by the number of cities.
+ * - The local cells are drained and added to the shared sketch in Redis (a hash keyed by cell index)
+ *   together with the hit counters, so all replicas feed one score.
+ * - The shared sketch is halved every {@code popularity.decay_interval_ms}, a score is roughly the hits of the
+ *   last two decay intervals and does not drop when the entry is refreshed.
+ */
+@Slf4j
+@Component
+public class PopularitySketch {
+
+    @Value("${popularity.sketch_depth}")
+    private int depth;
+
+    @Value("${popularity.sketch_width}")
+    private int width;
+
+    private CountMinSketch local;
+
+    @PostConstruct
+    void init() {
+        local = new CountMinSketch(depth, width);
+        log.info("Popularity sketch → depth={}, width={}", depth, width);
+    }
+
+    public void record(String key) {
+        local.increment(key);
+    }
+
+    /**
+     * Cells of the shared sketch holding the key's counters, one per row.
+     */
+    public int[] cellIndexes(String key) {
+        return local.cellIndexes(key);
+    }
+
+    /**
+     * Local increments since the previous drain (cell index → count).
+     */
+    public Map<Integer, Long> drain() {
+        return local.drain();
+    }
+}
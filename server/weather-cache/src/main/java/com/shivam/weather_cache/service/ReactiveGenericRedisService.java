@@ -0,0 +1,29 @@
+package com.shivam.weather_cache.service;
+
+import com.shivam.weather_cache.dto.CacheEntry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link GenericRedisService} for the reactive mode (read / write path only,
+ * the schedulers keep using the blocking service on their own threads).
+ */
+public interface ReactiveGenericRedisService {
+
+    /**
+     * Saves the value and its meta (incl. the content hash used as ETag), re-arms the city in the refresh-due index.
+     * Completes empty on errors.
+     */
+    Mono<Void> saveWithMeta(String key, Object value, String etag, boolean refresh, long fetchMillis);
+
+    /**
+     * Value plus its meta, empty on a miss or error. The hit is counted in-process like the buffered hit path.
+     */
+    Mono<CacheEntry<Object>> getEntryAndUpdateMeta(String key);
+
+    /**
+     * Entry meta fields only, without transferring the value. Empty when the city is not cached or on errors.
+     */
+    Mono<Map<String, Object>> getEntryMeta(String key);
+}
@@ -0,0 +1,133 @@
+package com.shivam.weather_cache.service;
+
+import com.shivam.weather_cache.dto.CacheEntry;
+import com.shivam.weather_cache.utils.AppConstants;
+import com.shivam.weather_cache.utils.CacheMetrics;
+import com.shivam.weather_cache.utils.RedisCircuitBreaker;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive Redis access.
+ * - No MULTI on the reactive template: the writes of a save are sent together (pipelined on the shared
+ *   connection) but not atomically, data is written with its TTL so a partial save never leaves a key without one.
+ * - Hit accounting always goes through the in-process buffer, redis.hit_path=lua only applies to the servlet mode.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGenericRedisServiceImpl implements ReactiveGenericRedisService {
+
+    @Value("${spring.redis.ttl}")
+    private long cacheTTL;
+
+    @Value("${schedular.hot_refresh_interval}")
+    private long hotRefreshInterval;
+
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final NearCacheService nearCacheService;
+    private final HitCounterBuffer hitCounterBuffer;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    // Same meters as the servlet mode (GenericRedisServiceImpl)
+    private final Timer getTimer;
+    private final Timer getMetaTimer;
+    private final Timer saveTimer;
+
+    public ReactiveGenericRedisServiceImpl(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                           ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                           NearCacheService nearCacheService,
+                                           HitCounterBuffer hitCounterBuffer,
+                                           RedisCircuitBreaker redisCircuitBreaker,
+                                           CacheMetrics cacheMetrics) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.nearCacheService = nearCacheService;
+        this.hitCounterBuffer = hitCounterBuffer;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.getTimer = cacheMetrics.redis("get");
+        this.getMetaTimer = cacheMetrics.redis("get_meta");
+        this.saveTimer = cacheMetrics.redis("save");
+    }
+
+    @Override
+    public Mono<Void> saveWithMeta(String key, Object value, String etag, boolean refresh, long fetchMillis) {
+        log.info("Saving weather data in redis for {} with TTL={}s Refresh :{}", key, cacheTTL, refresh);
+        long now = Instant.now().toEpochMilli();
+        Duration ttl = Duration.ofSeconds(cacheTTL);
+        String metaKey = key + AppConstants.RedisKeys.META_SUFFIX;
+
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("hits", 1);
+        meta.put("lastAccess", now);
+        meta.put("savedAt", now);
+        meta.put("fetchMillis", fetchMillis);
+        meta.put("expiresAt", now + cacheTTL * 1000);
+        meta.put("etag", etag);
+        if (refresh) {
+            meta.put("lastRefresh", now);
+        }
+
+        Mono<Void> save = Mono.when(
+                        reactiveRedisTemplate.opsForValue().set(key + AppConstants.RedisKeys.DATA_SUFFIX, value, ttl),
+                        reactiveRedisTemplate.<String, Object>opsForHash().putAll(metaKey, meta)
+                                .then(reactiveRedisTemplate.expire(metaKey, ttl)),
+                        // No body is encoded here, drop an older one so bytes mode replicas re-encode from data
+                        reactiveRedisTemplate.delete(key + AppConstants.RedisKeys.BODY_SUFFIX),
+                        reactiveStringRedisTemplate.opsForZSet()
+                                .add(AppConstants.RedisKeys.REFRESH_DUE_INDEX, key, now + hotRefreshInterval))
+                .then();
+        return redisCircuitBreaker.guarded("saveWithMeta for key '" + key + "'", CacheMetrics.timed(saveTimer, save), Mono::empty)
+                // Publishing the invalidation is a blocking call, guarded on its own
+                .then(Mono.fromRunnable(() -> nearCacheService.invalidate(key)).subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    @Override
+    public Mono<CacheEntry<Object>> getEntryAndUpdateMeta(String key) {
+        log.info("Get and update the meta data for {}", key);
+        // Both commands are in flight together on the shared connection
+        Mono<Map<String, Object>> meta = reactiveRedisTemplate.<String, Object>opsForHash()
+                .entries(key + AppConstants.RedisKeys.META_SUFFIX)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        Mono<CacheEntry<Object>> read = reactiveRedisTemplate.opsForValue().get(key + AppConstants.RedisKeys.DATA_SUFFIX)
+                .zipWith(meta, CacheEntry::new)
+                .doOnNext(entry -> {
+                    log.info("Cache HIT for city: {}", key);
+                    hitCounterBuffer.record(key, Instant.now().toEpochMilli());
+                });
+        return redisCircuitBreaker.guarded("getEntryAndUpdateMeta for key '" + key + "'", CacheMetrics.timed(getTimer, read), Mono::empty);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getEntryMeta(String key) {
+        List<String> fields = List.of("savedAt", "fetchMillis", "expiresAt", "etag");
+        // hasKey instead of GET: the value is not transferred, both commands are in flight together
+        Mono<Map<String, Object>> read = reactiveRedisTemplate.hasKey(key + AppConstants.RedisKeys.DATA_SUFFIX)
+                .filter(Boolean::booleanValue)
+                .zipWith(reactiveRedisTemplate.<String, Object>opsForHash()
+                        .multiGet(key + AppConstants.RedisKeys.META_SUFFIX, fields), (exists, values) -> {
+                    Map<String, Object> meta = new HashMap<>();
+                    for (int i = 0; i < fields.size() && i < values.size(); i++) {
+                        if (values.get(i) != null) meta.put(fields.get(i), values.get(i));
+                    }
+                    return meta;
+                });
+        return redisCircuitBreaker.guarded("getEntryMeta for key '" + key + "'", CacheMetrics.timed(getMetaTimer, read), Mono::empty);
+    }
+}
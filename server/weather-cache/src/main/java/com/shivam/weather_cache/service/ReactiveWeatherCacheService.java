@@ -0,0 +1,23 @@
+package com.shivam.weather_cache.service;
+
+import com.shivam.weather_cache.dto.CacheResult;
+import com.shivam.weather_cache.dto.ValidatorLookup;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link WeatherCacheService} (object serve mode).
+ */
+public interface ReactiveWeatherCacheService {
+
+    Mono<CacheResult> getWeather(String city);
+
+    /**
+     * See {@link WeatherCacheService#getValidators}, empty when the city is not cached.
+     */
+    Mono<ValidatorLookup> getValidators(String city);
+
+    /**
+     * See {@link WeatherCacheService#recordNotModified}.
+     */
+    void recordNotModified(String city, ValidatorLookup lookup);
+}
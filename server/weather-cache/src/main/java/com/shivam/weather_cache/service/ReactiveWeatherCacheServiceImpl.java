@@ -0,0 +1,173 @@
+package com.shivam.weather_cache.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.weather_cache.dto.CacheEntry;
+import com.shivam.weather_cache.dto.CacheResult;
+import com.shivam.weather_cache.dto.CacheStatus;
+import com.shivam.weather_cache.dto.ValidatorLookup;
+import com.shivam.weather_cache.exception.WeatherServiceException;
+import com.shivam.weather_cache.utils.CacheFreshnessPolicy;
+import com.shivam.weather_cache.utils.CacheMetrics;
+import com.shivam.weather_cache.utils.ResponseBodyEncoder;
+import com.shivam.weather_cache.utils.ReactiveWeatherSvcClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reactive weather lookup, same flow as {@link WeatherCacheServiceImpl}:
+ *  - Near cache (L1) → Redis (L2) → SVC Call, without blocking a thread on any of them
+ *  - Concurrent misses for a city share one cached Mono (inflight request)
+ *  - Soft TTL / XFetch refreshes run detached from the request
+ *  - Scheduler / warm-up refreshes join the same inflight calls ({@link CityRefresher}, blocking their virtual thread)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWeatherCacheServiceImpl implements ReactiveWeatherCacheService, CityRefresher {
+
+    private final ReactiveGenericRedisService redisService;
+    private final NearCacheService nearCacheService;
+    private final HitCounterBuffer hitCounterBuffer;
+    private final ObjectMapper objectMapper;
+    private final ReactiveWeatherSvcClient weatherSvcClient;
+    private final CacheFreshnessPolicy freshnessPolicy;
+    private final CacheMetrics cacheMetrics;
+    private final ResponseBodyEncoder bodyEncoder;
+
+    @Value("${inflight.max_wait_ms}")
+    private long maxWaitMs;
+
+    private final ConcurrentHashMap<String, Mono<CacheEntry<Map<String, Object>>>> inflight = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<CacheResult> getWeather(String city) {
+        String key = WeatherCacheServiceImpl.cacheKey(city);
+        log.info("Fetching weather for city: {}", city);
+
+        //Try near cache first
+        if (nearCacheService.get(key) instanceof CacheEntry<?> local && local.getValue() instanceof Map<?, ?>) {
+            hitCounterBuffer.record(key, System.currentTimeMillis());
+            CacheStatus status = statusOf(city, key, local, CacheMetrics.LAYER_NEAR);
+            return Mono.just(new CacheResult(asMap(local.getValue()), status, freshnessPolicy.validators(local, status)));
+        }
+
+        //Then Redis, then the SVC
+        return redisService.getEntryAndUpdateMeta(key)
+                .map(cached -> {
+                    CacheEntry<Map<String, Object>> entry =
+                            cached.withValue(value -> objectMapper.convertValue(value, new TypeReference<Map<String, Object>>() {}));
+                    nearCacheService.put(key, entry);
+                    CacheStatus status = statusOf(city, key, entry, CacheMetrics.LAYER_REDIS);
+                    return new CacheResult(entry.getValue(), status, freshnessPolicy.validators(entry, status));
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Cache MISS for city: {}. Calling Weather SVC...", city);
+                    return fetch(city, key, false).map(fetched -> {
+                        CacheStatus status = cacheMetrics.result(CacheStatus.MISS, CacheMetrics.LAYER_UPSTREAM);
+                        return new CacheResult(fetched.getValue(), status, freshnessPolicy.validators(fetched, status));
+                    });
+                }));
+    }
+
+    @Override
+    public Mono<ValidatorLookup> getValidators(String city) {
+        String key = WeatherCacheServiceImpl.cacheKey(city);
+
+        if (nearCacheService.get(key) instanceof CacheEntry<?> local) {
+            return Mono.just(freshnessPolicy.lookup(local, CacheMetrics.LAYER_NEAR));
+        }
+
+        return redisService.getEntryMeta(key)
+                .map(meta -> freshnessPolicy.lookup(new CacheEntry<>(null, meta), CacheMetrics.LAYER_REDIS));
+    }
+
+    @Override
+    public void recordNotModified(String city, ValidatorLookup lookup) {
+        String key = WeatherCacheServiceImpl.cacheKey(city);
+        hitCounterBuffer.record(key, System.currentTimeMillis());
+        revalidateIfNeeded(city, key, lookup.getFreshness());
+        cacheMetrics.result(lookup.getValidators().getStatus(), lookup.getLayer());
+    }
+
+    @Override
+    public void refresh(String city) {
+        fetch(city, WeatherCacheServiceImpl.cacheKey(city), true).block();
+    }
+
+    private CacheStatus statusOf(String city, String key, CacheEntry<?> entry, String layer) {
+        CacheFreshnessPolicy.Freshness freshness = freshnessPolicy.evaluate(entry);
+        revalidateIfNeeded(city, key, freshness);
+        return cacheMetrics.result(CacheFreshnessPolicy.status(freshness), layer);
+    }
+
+    private void revalidateIfNeeded(String city, String key, CacheFreshnessPolicy.Freshness freshness) {
+        if (freshness != CacheFreshnessPolicy.Freshness.FRESH && !inflight.containsKey(key)) {
+            log.info("{} hit for city: {}. Refreshing in background", freshness, city);
+            fetch(city, key, true).subscribe(
+                    data -> {},
+                    ex -> log.warn("Background refresh failed for {}: {}", city, ex.getMessage()));
+        }
+    }
+
+    /**
+     * The first miss for a key creates the call, later ones subscribe to the same cached result.
+     */
+    private Mono<CacheEntry<Map<String, Object>>> fetch(String city, String key, boolean refresh) {
+        Mono<CacheEntry<Map<String, Object>>> call = inflight.computeIfAbsent(key, k ->
+                fetchAndStore(city, k, refresh)
+                        .doFinally(signal -> inflight.remove(k))
+                        .cache());
+
+        return call
+                .timeout(Duration.ofMillis(maxWaitMs))
+                .onErrorMap(ex -> toServiceException(city, key, ex));
+    }
+
+    private Mono<CacheEntry<Map<String, Object>>> fetchAndStore(String city, String key, boolean refresh) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return weatherSvcClient.fetchWeatherData(city)
+                    .filter(data -> !data.isEmpty())
+                    .switchIfEmpty(Mono.error(new WeatherServiceException(
+                            "Weather SVC returned empty data for " + city, HttpStatus.NO_CONTENT)))
+                    .flatMap(data -> {
+                        long fetchMillis = (System.nanoTime() - start) / 1_000_000;
+                        String etag = bodyEncoder.etag(data);
+                        CacheEntry<Map<String, Object>> entry = new CacheEntry<>(data, freshnessPolicy.newEntryMeta(fetchMillis, etag));
+                        // The save invalidates L1 copies, put ours afterwards
+                        return redisService.saveWithMeta(key, data, etag, refresh, fetchMillis)
+                                .then(Mono.fromRunnable(() -> nearCacheService.put(key, entry)))
+                                .thenReturn(entry);
+                    });
+        });
+    }
+
+    private Throwable toServiceException(String city, String key, Throwable ex) {
+        if (ex instanceof WeatherServiceException) return ex;
+        if (ex instanceof WebClientResponseException httpEx) {
+            return WeatherCacheServiceImpl.svcError(city, httpEx.getStatusCode().value(), httpEx);
+        }
+        if (ex instanceof TimeoutException) {
+            return new WeatherServiceException("Timed out waiting for inflight request for " + key, ex, HttpStatus.GATEWAY_TIMEOUT);
+        }
+        return new WeatherServiceException("Unexpected error fetching weather for " + city, ex, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
@@ -1,8 +1,36 @@
 package com.shivam.weather_cache.service;
 
+import com.shivam.weather_cache.dto.BatchForecastItem;
 import com.shivam.weather_cache.dto.CacheResult;
+import com.shivam.weather_cache.dto.ValidatorLookup;
+import com.shivam.weather_cache.dto.EncodedCacheResult;
 
-public interface WeatherCacheService {
+import java.util.List;
+
+public interface WeatherCacheService extends CityRefresher {
 
     CacheResult getWeather(String city);
+
+    /**
+     * Forecast as pre-encoded response body bytes (cache.serve_mode=bytes), hits skip JSON parse and write.
+     */
+    EncodedCacheResult getWeatherEncoded(String city);
+
+    /**
+     * Validators of the cached entry for conditional GETs, from the near cache or the Redis meta hash only
+     * (the value is not read). Side effect free, null when the city is not cached.
+     */
+    ValidatorLookup getValidators(String city);
+
+    /**
+     * Counts a 304 answered from {@link #getValidators} like a hit (hit counter, cache result metric) and starts
+     * the background refresh its freshness asks for. Not called when the request falls through to a full read.
+     */
+    void recordNotModified(String city, ValidatorLookup lookup);
+
+    /**
+     * Forecast of several cities: near cache, then one MGET for the rest, then the misses in parallel
+     * (bounded by {@code batch.max_concurrency}). One item per requested city, a failing city is an ERROR item.
+     */
+    List<BatchForecastItem> getWeatherBatch(List<String> cities);
 }
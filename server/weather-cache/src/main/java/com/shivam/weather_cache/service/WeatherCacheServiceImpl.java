@@ -2,91 +2,301 @@ package com.shivam.weather_cache.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.weather_cache.dto.BatchForecastItem;
+import com.shivam.weather_cache.dto.CacheEntry;
 import com.shivam.weather_cache.dto.CacheResult;
+import com.shivam.weather_cache.dto.CacheStatus;
+import com.shivam.weather_cache.dto.EncodedBody;
+import com.shivam.weather_cache.dto.EncodedCacheResult;
+import com.shivam.weather_cache.dto.ValidatorLookup;
 import com.shivam.weather_cache.exception.WeatherServiceException;
+import com.shivam.weather_cache.utils.AppConstants;
+import com.shivam.weather_cache.utils.CacheMetrics;
+import com.shivam.weather_cache.utils.CacheFreshnessPolicy;
+import com.shivam.weather_cache.utils.InflightRequestCoalescer;
+import com.shivam.weather_cache.utils.ResponseBodyEncoder;
 import com.shivam.weather_cache.utils.WeatherSvcClient;
+import com.shivam.weather_cache.utils.WeatherUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.*;
 
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Service for fetching weather data with Redis caching.
  * Responsibilities:
  *  - Cache HIT / MISS
- *  - Redis Call / SVC Call
+ *  - Near cache (L1) → Redis (L2) → SVC Call
+ *  - Object mode (decoded map) or bytes mode (pre-encoded response body)
+ *  - Soft TTL: past it the stale value is served (X-Cache: STALE) and one background refresh starts
+ *  - XFetch: a hit may trigger an early background refresh, more likely as the hard expiry nears
+ *  - Conditional GETs: validators (ETag, Last-Modified, max-age) are answered from meta only, only a 304 is counted there
  *
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WeatherCacheServiceImpl implements WeatherCacheService {
 
     private final GenericRedisService redisService;
+    private final NearCacheService nearCacheService;
     private final ObjectMapper objectMapper;
     private final WeatherSvcClient weatherSvcClient;
+    private final InflightRequestCoalescer inflightCoalescer;
+    private final ResponseBodyEncoder bodyEncoder;
+    private final CacheFreshnessPolicy freshnessPolicy;
+    private final CacheMetrics cacheMetrics;
 
+    // Max parallel SVC calls for the misses of one batch request
+    @Value("${batch.max_concurrency}")
+    private int batchMaxConcurrency;
+
+    // Keys with a background refresh running on this instance
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Result of one (coalesced) SVC call, body is null when bytes serve mode is off.
+     */
+    private record FetchResult(Map<String, Object> data, EncodedBody body, Map<String, Object> meta) {}
 
     @Override
     public CacheResult getWeather(String city) {
-        if (city == null || city.isBlank()) {
-            throw new IllegalArgumentException("City parameter cannot be empty");
+        String key = cacheKey(city);
+        log.info("Fetching weather for city: {}", city);
+
+        //Try near cache first, hits are buffered in-process and flushed to Redis in batches
+        CacheEntry<Map<String, Object>> local = localEntry(key);
+        if (local != null) {
+            redisService.recordHit(key);
+            CacheStatus status = statusOf(city, key, local, CacheMetrics.LAYER_NEAR);
+            return new CacheResult(local.getValue(), status, freshnessPolicy.validators(local, status));
         }
 
-        String key = "weather:" + city.toLowerCase();
-        log.info("Fetching weather for city: {}", city);
+        //Then Redis
+        try {
+            CacheEntry<Map<String, Object>> entry = readEntry(key);
+            if (entry != null) {
+                CacheStatus status = statusOf(city, key, entry, CacheMetrics.LAYER_REDIS);
+                return new CacheResult(entry.getValue(), status, freshnessPolicy.validators(entry, status));
+            }
+        } catch (Exception ex) {
+            log.warn("Redis read failed for key {}: {}", key, ex.getMessage());
+        }
+
+        log.info("Cache MISS for city: {}. Calling Weather SVC...", city);
+        FetchResult fetched = fetch(city, key, false);
+        CacheStatus status = cacheMetrics.result(CacheStatus.MISS, CacheMetrics.LAYER_UPSTREAM);
+        return new CacheResult(fetched.data(), status, freshnessPolicy.validators(new CacheEntry<>(fetched.data(), fetched.meta()), status));
+    }
+
+    @Override
+    public EncodedCacheResult getWeatherEncoded(String city) {
+        String key = cacheKey(city);
+        String bodyKey = key + AppConstants.RedisKeys.BODY_SUFFIX;
+        log.info("Fetching encoded weather for city: {}", city);
+
+        if (nearCacheService.get(bodyKey) instanceof CacheEntry<?> local && local.getValue() instanceof EncodedBody body) {
+            redisService.recordHit(key);
+            CacheStatus status = statusOf(city, key, local, CacheMetrics.LAYER_NEAR);
+            return new EncodedCacheResult(body, status, freshnessPolicy.validators(local, status));
+        }
 
-        //Try cache first
         try {
-            Object cached = redisService.getAndUpdateMeta(key);
+            CacheEntry<byte[]> cached = redisService.getBodyAndUpdateMeta(key);
             if (cached != null) {
-                Map<String, Object> cachedMap = objectMapper.convertValue(cached, new TypeReference<>() {});
-                return new CacheResult(cachedMap, true);
+                CacheEntry<EncodedBody> entry = cached.withValue(ResponseBodyEncoder::wrap);
+                nearCacheService.put(bodyKey, entry);
+                CacheStatus status = statusOf(city, key, entry, CacheMetrics.LAYER_REDIS);
+                return new EncodedCacheResult(entry.getValue(), status, freshnessPolicy.validators(entry, status));
             }
         } catch (Exception ex) {
             log.warn("Redis read failed for key {}: {}", key, ex.getMessage());
         }
 
         log.info("Cache MISS for city: {}. Calling Weather SVC...", city);
+        FetchResult fetched = fetch(city, key, false);
+        EncodedBody body = fetched.body() != null ? fetched.body() : bodyEncoder.encode(fetched.data());
+        CacheStatus status = cacheMetrics.result(CacheStatus.MISS, CacheMetrics.LAYER_UPSTREAM);
+        return new EncodedCacheResult(body, status, freshnessPolicy.validators(new CacheEntry<>(body, fetched.meta()), status));
+    }
+
+    @Override
+    public ValidatorLookup getValidators(String city) {
+        String key = cacheKey(city);
+
+        // Either L1 copy carries the entry meta
+        Object local = nearCacheService.get(key);
+        if (!(local instanceof CacheEntry<?>)) {
+            local = nearCacheService.get(key + AppConstants.RedisKeys.BODY_SUFFIX);
+        }
+        if (local instanceof CacheEntry<?> entry) {
+            return freshnessPolicy.lookup(entry, CacheMetrics.LAYER_NEAR);
+        }
 
-        //Call the Weather API via weatherSvcClient
         try {
-            Map<String, Object> data = weatherSvcClient.fetchWeatherData(city);
+            Map<String, Object> meta = redisService.getEntryMeta(key);
+            if (meta != null) {
+                return freshnessPolicy.lookup(new CacheEntry<>(null, meta), CacheMetrics.LAYER_REDIS);
+            }
+        } catch (Exception ex) {
+            log.warn("Redis meta read failed for key {}: {}", key, ex.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public void recordNotModified(String city, ValidatorLookup lookup) {
+        String key = cacheKey(city);
+        redisService.recordHit(key);
+        if (lookup.getFreshness() != CacheFreshnessPolicy.Freshness.FRESH) {
+            revalidateInBackground(city, key, lookup.getFreshness());
+        }
+        cacheMetrics.result(lookup.getValidators().getStatus(), lookup.getLayer());
+    }
+
+    @Override
+    public List<BatchForecastItem> getWeatherBatch(List<String> cities) {
+        // Unique cities by cache key, in request order
+        Map<String, String> pending = new LinkedHashMap<>();
+        Map<String, BatchForecastItem> resolved = new ConcurrentHashMap<>();
+        List<String> requestKeys = new ArrayList<>(cities.size());
+        Map<Integer, BatchForecastItem> invalid = new HashMap<>();
+
+        for (String city : cities) {
+            String trimmed;
+            try {
+                trimmed = WeatherUtils.validateAndTrimCity(city);
+            } catch (RuntimeException ex) {
+                invalid.put(requestKeys.size(), BatchForecastItem.error(city, HttpStatus.BAD_REQUEST.value(), ex.getMessage()));
+                requestKeys.add(null);
+                continue;
+            }
+            String key = cacheKey(trimmed);
+            requestKeys.add(key);
+            if (resolved.containsKey(key) || pending.containsKey(key)) continue;
 
-            if (data == null || data.isEmpty()) {
-                throw new WeatherServiceException(
-                        "Weather SVC returned empty data for " + city,
-                        HttpStatus.NO_CONTENT
-                );
+            //Near cache
+            CacheEntry<Map<String, Object>> local = localEntry(key);
+            if (local != null) {
+                redisService.recordHit(key);
+                resolved.put(key, BatchForecastItem.of(trimmed, statusOf(trimmed, key, local, CacheMetrics.LAYER_NEAR), local.getValue()));
+            } else {
+                pending.put(key, trimmed);
             }
+        }
+
+        //Redis, one MGET + pipelined meta
+        List<String> keys = new ArrayList<>(pending.keySet());
+        List<CacheEntry<Map<String, Object>>> cached = keys.isEmpty() ? List.of() : readEntries(keys);
+        for (int i = 0; i < keys.size(); i++) {
+            CacheEntry<Map<String, Object>> entry = i < cached.size() ? cached.get(i) : null;
+            if (entry == null) continue;
+            String key = keys.get(i);
+            String city = pending.remove(key);
+            resolved.put(key, BatchForecastItem.of(city, statusOf(city, key, entry, CacheMetrics.LAYER_REDIS), entry.getValue()));
+        }
+
+        //SVC calls for the misses
+        if (!pending.isEmpty()) {
+            log.info("Batch: {} cities, {} MISS. Calling Weather SVC...", cities.size(), pending.size());
+            fetchMisses(pending, resolved);
+        }
+
+        List<BatchForecastItem> items = new ArrayList<>(cities.size());
+        for (int i = 0; i < cities.size(); i++) {
+            String key = requestKeys.get(i);
+            items.add(key != null ? resolved.get(key) : invalid.get(i));
+        }
+        return items;
+    }
+
+    /**
+     * One virtual thread per missing city, at most {@code batch.max_concurrency} SVC calls at a time.
+     */
+    private void fetchMisses(Map<String, String> misses, Map<String, BatchForecastItem> resolved) {
+        Semaphore permits = new Semaphore(Math.max(1, batchMaxConcurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            misses.forEach((key, city) -> executor.submit(() -> {
+                try {
+                    permits.acquire();
+                    try {
+                        Map<String, Object> data = fetch(city, key, false).data();
+                        resolved.put(key, BatchForecastItem.of(city, cacheMetrics.result(CacheStatus.MISS, CacheMetrics.LAYER_UPSTREAM), data));
+                    } finally {
+                        permits.release();
+                    }
+                } catch (WeatherServiceException ex) {
+                    resolved.put(key, BatchForecastItem.error(city, ex.getStatus().value(), ex.getMessage()));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    resolved.put(key, BatchForecastItem.error(city, HttpStatus.INTERNAL_SERVER_ERROR.value(), "Interrupted"));
+                } catch (Exception ex) {
+                    log.warn("Batch fetch failed for {}: {}", city, ex.getMessage());
+                    resolved.put(key, BatchForecastItem.error(city, HttpStatus.INTERNAL_SERVER_ERROR.value(), ex.getMessage()));
+                }
+            }));
+        }
+    }
 
-            //Save Date In the redis
+    /**
+     * HIT or STALE (past the soft TTL), a STALE or XFetch-picked hit starts a background refresh.
+     */
+    private CacheStatus statusOf(String city, String key, CacheEntry<?> entry, String layer) {
+        CacheFreshnessPolicy.Freshness freshness = freshnessPolicy.evaluate(entry);
+        if (freshness != CacheFreshnessPolicy.Freshness.FRESH) {
+            revalidateInBackground(city, key, freshness);
+        }
+        return cacheMetrics.result(CacheFreshnessPolicy.status(freshness), layer);
+    }
+
+    /**
+     * At most one refresh per key on this instance (soft TTL or early refresh), it also joins a miss already in flight for the key.
+     */
+    private void revalidateInBackground(String city, String key, CacheFreshnessPolicy.Freshness reason) {
+        if (!revalidating.add(key)) return;
+        log.info("{} hit for city: {}. Refreshing in background", reason, city);
+        Thread.startVirtualThread(() -> {
             try {
-                redisService.saveWithMeta(key, data,false);
+                fetch(city, key, true);
             } catch (Exception ex) {
-                log.warn("Redis save failed for key {}: {}", key, ex.getMessage());
+                log.warn("Background refresh failed for {}: {}", city, ex.getMessage());
+            } finally {
+                revalidating.remove(key);
             }
+        });
+    }
 
-            return new CacheResult(data, false);
+    @Override
+    public void refresh(String city) {
+        fetch(city, cacheKey(city), true);
+    }
 
-        } catch (HttpStatusCodeException httpEx) {
-            HttpStatus status = HttpStatus.resolve(httpEx.getStatusCode().value());
-            if (status == null) status = HttpStatus.INTERNAL_SERVER_ERROR;
+    public static String cacheKey(String city) {
+        if (city == null || city.isBlank()) {
+            throw new IllegalArgumentException("City parameter cannot be empty");
+        }
+        return "weather:" + city.toLowerCase();
+    }
 
-            String msg = switch (status) {
-                case NOT_FOUND -> "City not found: " + city;
-                case TOO_MANY_REQUESTS -> "Weather SVC rate limit exceeded. Try again later.";
-                case BAD_REQUEST -> "Invalid city name or request format.";
-                case BAD_GATEWAY, SERVICE_UNAVAILABLE -> "Weather SVC temporarily unavailable. Please retry later.";
-                default -> "Unexpected HTTP error (" + status.value() + ") from Weather SVC.";
-            };
+    /**
+     * Call the Weather API via weatherSvcClient, concurrent misses for the same city share one call.
+     */
+    private FetchResult fetch(String city, String key, boolean refresh) {
+        try {
+            return inflightCoalescer.execute(key, () -> fetchAndStore(city, key, refresh));
 
-            throw new WeatherServiceException(msg, httpEx, status);
+        } catch (HttpStatusCodeException httpEx) {
+            throw svcError(city, httpEx.getStatusCode().value(), httpEx);
 
+        } catch (WeatherServiceException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new WeatherServiceException(
                     "Unexpected error fetching weather for " + city,
@@ -95,4 +305,121 @@ public class WeatherCacheServiceImpl implements WeatherCacheService {
             );
         }
     }
+
+    /**
+     * Maps an HTTP error status of the Weather SVC to the exception returned to the client.
+     */
+    static WeatherServiceException svcError(String city, int statusCode, Throwable cause) {
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        if (status == null) status = HttpStatus.INTERNAL_SERVER_ERROR;
+
+        String msg = switch (status) {
+            case NOT_FOUND -> "City not found: " + city;
+            case TOO_MANY_REQUESTS -> "Weather SVC rate limit exceeded. Try again later.";
+            case BAD_REQUEST -> "Invalid city name or request format.";
+            case BAD_GATEWAY, SERVICE_UNAVAILABLE -> "Weather SVC temporarily unavailable. Please retry later.";
+            default -> "Unexpected HTTP error (" + status.value() + ") from Weather SVC.";
+        };
+
+        return new WeatherServiceException(msg, cause, status);
+    }
+
+    /**
+     * Leader side of a miss: SVC call, then write-through to Redis and the near cache.
+     */
+    private FetchResult fetchAndStore(String city, String key, boolean refresh) {
+        long start = System.nanoTime();
+        Map<String, Object> data = weatherSvcClient.fetchWeatherData(city);
+        long fetchMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if (data == null || data.isEmpty()) {
+            throw new WeatherServiceException(
+                    "Weather SVC returned empty data for " + city,
+                    HttpStatus.NO_CONTENT
+            );
+        }
+
+        EncodedBody body = bodyEncoder.encodeIfEnabled(data);
+        String etag = bodyEncoder.etag(data);
+
+        //Save Date In the redis
+        try {
+            redisService.saveWithMeta(key, data, body, etag, refresh, fetchMillis);
+        } catch (Exception ex) {
+            log.warn("Redis save failed for key {}: {}", key, ex.getMessage());
+        }
+        Map<String, Object> meta = freshnessPolicy.newEntryMeta(fetchMillis, etag);
+        // One L1 form per city, like Redis: the body in bytes mode (maps are decoded from it), else the map
+        if (body != null) {
+            nearCacheService.put(key + AppConstants.RedisKeys.BODY_SUFFIX, new CacheEntry<>(body, meta));
+        } else {
+            nearCacheService.put(key, new CacheEntry<>(data, meta));
+        }
+        return new FetchResult(data, body, meta);
+    }
+
+    /**
+     * Near cache copy as a map, in bytes mode decoded from the body entry (the only L1 form).
+     */
+    private CacheEntry<Map<String, Object>> localEntry(String key) {
+        if (bodyEncoder.isEnabled()) {
+            if (nearCacheService.get(key + AppConstants.RedisKeys.BODY_SUFFIX) instanceof CacheEntry<?> local
+                    && local.getValue() instanceof EncodedBody body) {
+                return new CacheEntry<>(bodyEncoder.decode(body.getBytes()), local.getMeta());
+            }
+            return null;
+        }
+        if (nearCacheService.get(key) instanceof CacheEntry<?> local && local.getValue() instanceof Map<?, ?> map) {
+            return new CacheEntry<>(asMap(map), local.getMeta());
+        }
+        return null;
+    }
+
+    /**
+     * Redis copy as a map, kept in the near cache in its stored form (the body in bytes mode).
+     */
+    private CacheEntry<Map<String, Object>> readEntry(String key) {
+        if (bodyEncoder.isEnabled()) {
+            CacheEntry<byte[]> cached = redisService.getBodyAndUpdateMeta(key);
+            return cached == null ? null : storeBody(key, cached);
+        }
+        CacheEntry<Object> cached = redisService.getEntryAndUpdateMeta(key);
+        return cached == null ? null : storeMap(key, cached);
+    }
+
+    /**
+     * Batch variant of {@link #readEntry}, same order as the keys, null for a miss.
+     */
+    private List<CacheEntry<Map<String, Object>>> readEntries(List<String> keys) {
+        List<CacheEntry<Map<String, Object>>> entries = new ArrayList<>(keys.size());
+        if (bodyEncoder.isEnabled()) {
+            List<CacheEntry<byte[]>> cached = redisService.getBodiesAndUpdateMeta(keys);
+            for (int i = 0; i < cached.size(); i++) {
+                entries.add(cached.get(i) == null ? null : storeBody(keys.get(i), cached.get(i)));
+            }
+        } else {
+            List<CacheEntry<Object>> cached = redisService.getEntriesAndUpdateMeta(keys);
+            for (int i = 0; i < cached.size(); i++) {
+                entries.add(cached.get(i) == null ? null : storeMap(keys.get(i), cached.get(i)));
+            }
+        }
+        return entries;
+    }
+
+    private CacheEntry<Map<String, Object>> storeBody(String key, CacheEntry<byte[]> cached) {
+        nearCacheService.put(key + AppConstants.RedisKeys.BODY_SUFFIX, cached.withValue(ResponseBodyEncoder::wrap));
+        return cached.withValue(bodyEncoder::decode);
+    }
+
+    private CacheEntry<Map<String, Object>> storeMap(String key, CacheEntry<Object> cached) {
+        CacheEntry<Map<String, Object>> entry =
+                cached.withValue(value -> objectMapper.convertValue(value, new TypeReference<Map<String, Object>>() {}));
+        nearCacheService.put(key, entry);
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
 }
@@ -57,6 +57,26 @@ public class AppConstants {
         public static final String X_CACHE = "X-Cache";
         public static final String CACHE_HIT = "HIT";
         public static final String CACHE_MISS = "MISS";
+        public static final String CACHE_STALE = "STALE";
     }
 
-}
\ No newline at end of file
+    // ===========================
+    // Redis Keys
+    // ===========================
+    public final class RedisKeys {
+        private RedisKeys() {}
+        public static final String DATA_SUFFIX = ":data";
+        public static final String META_SUFFIX = ":meta";
+        // Pre-encoded response body (cache.serve_mode=bytes)
+        public static final String BODY_SUFFIX = ":body";
+        // ZSET member = city key (weather:<city>), score = epoch ms when the city is next due for a refresh check
+        public static final String REFRESH_DUE_INDEX = "weather:index:refresh-due";
+        // String lease, value = id of the replica running the refresh scheduler
+        public static final String SCHEDULER_LEADER_LEASE = "weather:scheduler:leader";
+        // Shared count-min sketch, hash field = cell index, value = decayed hit count
+        public static final String POPULARITY_SKETCH = "weather:popularity:sketch";
+        // Epoch ms of the last sketch decay
+        public static final String POPULARITY_DECAYED_AT = "weather:popularity:decayed-at";
+    }
+
+}
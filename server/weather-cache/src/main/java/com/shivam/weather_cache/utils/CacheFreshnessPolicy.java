@@ -0,0 +1,116 @@
+package com.shivam.weather_cache.utils;
+
+import com.shivam.weather_cache.dto.CacheEntry;
+import com.shivam.weather_cache.dto.CacheStatus;
+import com.shivam.weather_cache.dto.CacheValidators;
+import com.shivam.weather_cache.dto.ValidatorLookup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides what a cache hit needs, shared by the servlet and reactive read paths:
+ * - STALE: older than the soft TTL, serve it and refresh in background
+ * - REFRESH_EARLY: XFetch picked this hit to refresh before the hard expiry
+ * - FRESH: serve it, nothing else to do
+ * It also derives the HTTP validators (ETag, Last-Modified, max-age) of an entry.
+ */
+@Component
+public class CacheFreshnessPolicy {
+
+    public enum Freshness { FRESH, REFRESH_EARLY, STALE }
+
+    // Age after which a hit is served as STALE and revalidated, 0 disables, keep it below spring.redis.ttl
+    @Value("${cache.soft_ttl_seconds}")
+    private long softTtlSeconds;
+
+    // XFetch beta, > 1 favours earlier refreshes, 0 disables probabilistic early refresh
+    @Value("${cache.xfetch_beta}")
+    private double xfetchBeta;
+
+    @Value("${spring.redis.ttl}")
+    private long cacheTTL;
+
+    // Shortest scheduler refresh interval (ms), a cached entry cannot change before it
+    @Value("${schedular.hot_refresh_interval}")
+    private long hotRefreshInterval;
+
+    /**
+     * Entries without savedAt / fetchMillis (written by an older version) are always FRESH.
+     */
+    public Freshness evaluate(CacheEntry<?> entry) {
+        long now = Instant.now().toEpochMilli();
+        if (softTtlSeconds > 0 && entry.getSavedAt() > 0 && now - entry.getSavedAt() >= softTtlSeconds * 1000) {
+            return Freshness.STALE;
+        }
+        return shouldRefreshEarly(entry, now) ? Freshness.REFRESH_EARLY : Freshness.FRESH;
+    }
+
+    /**
+     * X-Cache status of a hit with this freshness.
+     */
+    public static CacheStatus status(Freshness freshness) {
+        return freshness == Freshness.STALE ? CacheStatus.STALE : CacheStatus.HIT;
+    }
+
+    /**
+     * Validator lookup of a cached entry (conditional GET pre-check), without side effects.
+     */
+    public ValidatorLookup lookup(CacheEntry<?> entry, String layer) {
+        Freshness freshness = evaluate(entry);
+        return new ValidatorLookup(validators(entry, status(freshness)), layer, freshness);
+    }
+
+    /**
+     * Meta of a value just fetched from the SVC, same fields the Redis hit path returns.
+     */
+    public Map<String, Object> newEntryMeta(long fetchMillis, String etag) {
+        long now = Instant.now().toEpochMilli();
+        Map<String, Object> meta = new HashMap<>(Map.of("savedAt", now, "fetchMillis", fetchMillis, "expiresAt", now + cacheTTL * 1000));
+        if (etag != null) {
+            meta.put("etag", etag);
+        }
+        return meta;
+    }
+
+    /**
+     * max-age runs until the earliest point the entry may be replaced: the next scheduler refresh,
+     * the soft TTL or the hard expiry. STALE entries and entries without savedAt get 0 (always revalidate).
+     */
+    public CacheValidators validators(CacheEntry<?> entry, CacheStatus status) {
+        String etag = entry.getEtag() == null ? null : "\"" + entry.getEtag() + "\"";
+        long savedAt = entry.getSavedAt();
+        if (savedAt <= 0) {
+            return new CacheValidators(etag, -1, 0, status);
+        }
+
+        long freshUntil = savedAt + hotRefreshInterval;
+        if (softTtlSeconds > 0) {
+            freshUntil = Math.min(freshUntil, savedAt + softTtlSeconds * 1000);
+        }
+        if (entry.getExpiresAt() > 0) {
+            freshUntil = Math.min(freshUntil, entry.getExpiresAt());
+        }
+        long maxAge = status == CacheStatus.STALE ? 0 : Math.max(0, (freshUntil - Instant.now().toEpochMilli()) / 1000);
+        return new CacheValidators(etag, savedAt, maxAge, status);
+    }
+
+    /**
+     * XFetch: refresh when {@code now - delta * beta * ln(rand) >= expiry}, delta = last SVC call duration.
+     * The probability rises towards 1 as the expiry nears and slow fetches start earlier,
+     * so replicas and requests spread their refreshes instead of all missing at the TTL boundary.
+     */
+    private boolean shouldRefreshEarly(CacheEntry<?> entry, long now) {
+        long expiresAt = entry.getExpiresAt();
+        if (xfetchBeta <= 0 || entry.getFetchMillis() <= 0 || expiresAt <= 0) {
+            return false; // off, or entry written by an older version
+        }
+        // 1 - nextDouble() is in (0, 1], ln is in (-inf, 0]
+        double gap = -entry.getFetchMillis() * xfetchBeta * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return now + gap >= expiresAt;
+    }
+}
@@ -0,0 +1,113 @@
+package com.shivam.weather_cache.utils;
+
+import com.shivam.weather_cache.dto.CacheStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of the cache hot paths, exposed on /actuator/prometheus:
+ * - weather.cache.requests{status=HIT|STALE|MISS, layer=near|redis|upstream}: hit / stale / miss ratio
+ * - weather.cache.redis{operation}: Redis round trip latency (reads, meta updates, saves)
+ * - weather.cache.scheduler.*: tick duration, refreshes and deferred cities per tier
+ * Timers publish percentile histograms so p50 / p99 can be aggregated across replicas.
+ * Meters are registered once and kept, the request path only increments them.
+ */
+@Component
+public class CacheMetrics {
+
+    public static final String LAYER_NEAR = "near";
+    public static final String LAYER_REDIS = "redis";
+    public static final String LAYER_UPSTREAM = "upstream";
+
+    public static final String TIER_HOT = "hot";
+    public static final String TIER_MEDIUM = "medium";
+
+    private final MeterRegistry registry;
+    private final Map<String, Map<CacheStatus, Counter>> requests = new ConcurrentHashMap<>();
+    private final Map<String, Timer> redisTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> schedulerCounters = new ConcurrentHashMap<>();
+    private final Timer schedulerTick;
+
+    public CacheMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.schedulerTick = Timer.builder("weather.cache.scheduler.tick")
+                .description("Duration of scheduler ticks that had due cities")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Counts one cache lookup and returns its status, so it can wrap the status of the result.
+     */
+    public CacheStatus result(CacheStatus status, String layer) {
+        requests.computeIfAbsent(layer, this::requestCounters).get(status).increment();
+        return status;
+    }
+
+    public Timer redis(String operation) {
+        return redisTimers.computeIfAbsent(operation, op -> Timer.builder("weather.cache.redis")
+                .description("Redis round trip latency")
+                .tag("operation", op)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    /**
+     * Records the time from subscription to completion / error / cancel of the call.
+     */
+    public static <T> Mono<T> timed(Timer timer, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public Timer schedulerTick() {
+        return schedulerTick;
+    }
+
+    public void refreshed(String tier, boolean success) {
+        schedulerCounter("weather.cache.scheduler.refreshes", tier, success ? "success" : "failure").increment();
+    }
+
+    public void deferred(String tier, long count) {
+        if (count > 0) {
+            schedulerCounter("weather.cache.scheduler.deferred", tier, null).increment(count);
+        }
+    }
+
+    public void lastDeferredGauge(AtomicInteger lastDeferred) {
+        Gauge.builder("weather.cache.scheduler.last_deferred", lastDeferred, AtomicInteger::get)
+                .description("Due cities left over by the last scheduler tick")
+                .register(registry);
+    }
+
+    private Map<CacheStatus, Counter> requestCounters(String layer) {
+        Map<CacheStatus, Counter> counters = new EnumMap<>(CacheStatus.class);
+        for (CacheStatus status : CacheStatus.values()) {
+            counters.put(status, Counter.builder("weather.cache.requests")
+                    .description("Cache lookups by result and the layer that answered")
+                    .tag("status", status.name())
+                    .tag("layer", layer)
+                    .register(registry));
+        }
+        return counters;
+    }
+
+    private Counter schedulerCounter(String name, String tier, String outcome) {
+        return schedulerCounters.computeIfAbsent(name + ":" + tier + ":" + outcome, id -> {
+            Counter.Builder builder = Counter.builder(name).tag("tier", tier);
+            return (outcome == null ? builder : builder.tag("outcome", outcome)).register(registry);
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.shivam.weather_cache.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch, fixed memory (depth x width counters) whatever the number of keys:
+ * - estimate(key) never under-counts, over-counts only through hash collisions (min over the rows).
+ * - Cells are addressed by a flat index (row * width + column), the same for every replica with the same
+ *   width / depth, so local cells can be merged into a shared copy cell by cell.
+ * - Thread-safe, increments are lock-free.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray cells;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be >= 1");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.cells = new AtomicLongArray(depth * width);
+    }
+
+    public void increment(String key) {
+        for (int cell : cellIndexes(key)) {
+            cells.incrementAndGet(cell);
+        }
+    }
+
+    public long estimate(String key) {
+        long min = Long.MAX_VALUE;
+        for (int cell : cellIndexes(key)) {
+            min = Math.min(min, cells.get(cell));
+        }
+        return min;
+    }
+
+    /**
+     * Flat cell index per row for the key, double hashing (h1 + row * h2) over a 64-bit FNV-1a hash.
+     */
+    public int[] cellIndexes(String key) {
+        long hash = fnv1a64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int[] indexes = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            indexes[row] = row * width + Math.floorMod(h1 + row * h2, width);
+        }
+        return indexes;
+    }
+
+    /**
+     * Non-zero cells since the previous drain, reset to zero.
+     */
+    public Map<Integer, Long> drain() {
+        Map<Integer, Long> nonZero = new HashMap<>();
+        for (int i = 0; i < cells.length(); i++) {
+            if (cells.get(i) != 0) {
+                nonZero.put(i, cells.getAndSet(i, 0));
+            }
+        }
+        return nonZero;
+    }
+
+    private static long fnv1a64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
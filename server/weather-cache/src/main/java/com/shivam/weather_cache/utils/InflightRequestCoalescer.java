@@ -0,0 +1,63 @@
+package com.shivam.weather_cache.utils;
+
+import com.shivam.weather_cache.exception.WeatherServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Inflight Request pattern:
+ * - The first caller for a key (leader) runs the supplier on its own thread.
+ * - Concurrent callers for the same key (waiters) block on the leader's result for at most {@code inflight.max_wait_ms}.
+ * - A failure of the leader is rethrown to every waiter.
+ * Servlet mode, the reactive service shares cached Monos instead.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class InflightRequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    @Value("${inflight.max_wait_ms}")
+    private long maxWaitMs;
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> supplier) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, created);
+
+        if (existing == null) {
+            try {
+                T result = supplier.get();
+                created.complete(result);
+                return result;
+            } catch (RuntimeException ex) {
+                created.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inflight.remove(key, created);
+            }
+        }
+
+        log.info("Joining inflight request for {}", key);
+        try {
+            return (T) existing.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeEx) {
+                throw runtimeEx;
+            }
+            throw new WeatherServiceException("Inflight request failed for " + key, ex.getCause(), HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (TimeoutException ex) {
+            throw new WeatherServiceException("Timed out waiting for inflight request for " + key, ex, HttpStatus.GATEWAY_TIMEOUT);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WeatherServiceException("Interrupted waiting for inflight request for " + key, ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
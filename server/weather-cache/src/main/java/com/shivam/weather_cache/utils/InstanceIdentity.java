@@ -0,0 +1,19 @@
+package com.shivam.weather_cache.utils;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+/**
+ * Unique id of this weather-cache replica.
+ * Used to tag cross-instance messages (e.g. near cache invalidation) so a replica can ignore its own events.
+ */
+@Getter
+@Component
+public class InstanceIdentity {
+
+    private final String id = ManagementFactory.getRuntimeMXBean().getName()
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+}
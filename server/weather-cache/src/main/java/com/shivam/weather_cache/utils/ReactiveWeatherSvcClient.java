@@ -0,0 +1,50 @@
+package com.shivam.weather_cache.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link WeatherSvcClient}.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWeatherSvcClient {
+
+    private final WebClient webClient;
+
+    @Value("${weather.svc.url}")
+    private String svcUrl;
+
+    public ReactiveWeatherSvcClient(@Qualifier("weatherSvcWebClient") WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    /**
+     * Calls the external Weather SVC, errors with {@link WebClientResponseException} on non 2xx statuses.
+     */
+    public Mono<Map<String, Object>> fetchWeatherData(String city) {
+        String url = WeatherSvcClient.uriTemplate(svcUrl);
+
+        log.info("Calling Weather SVC: {} for {}", url, city);
+
+        // Template + variable: encoded on expansion, one http.client.requests series
+        return webClient.get()
+                .uri(url, city)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .doOnError(WebClientResponseException.class, httpEx ->
+                        log.error("Weather SVC HTTP error {} for {}: {}", httpEx.getStatusCode(), city, httpEx.getMessage()))
+                .doOnError(ex -> !(ex instanceof WebClientResponseException), ex ->
+                        log.error("Weather SVC network/timeout error for {}: {}", city, ex.getMessage()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.shivam.weather_cache.utils;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around every Redis call (resilience4j):
+ * - Failures and calls slower than the command timeout count in a sliding window of recent calls,
+ *   above {@code redis.circuit_breaker.failure_rate_threshold} % the breaker opens.
+ * - While open, calls are not sent at all and return their fallback right away (miss / no-op), so requests
+ *   are served from the near cache or the coalesced SVC call without waiting for Redis timeouts.
+ * - After {@code redis.circuit_breaker.open_state_ms} a few probe calls (half-open) decide whether it closes again.
+ * - State and skipped calls are exported as weather.cache.redis.circuit_breaker.* meters.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisCircuitBreaker {
+
+    private final MeterRegistry registry;
+
+    @Value("${spring.redis.timeout_ms}")
+    private long commandTimeoutMs;
+
+    @Value("${redis.circuit_breaker.failure_rate_threshold}")
+    private float failureRateThreshold;
+
+    @Value("${redis.circuit_breaker.sliding_window_size}")
+    private int slidingWindowSize;
+
+    @Value("${redis.circuit_breaker.minimum_calls}")
+    private int minimumCalls;
+
+    @Value("${redis.circuit_breaker.open_state_ms}")
+    private long openStateMs;
+
+    @Value("${redis.circuit_breaker.half_open_calls}")
+    private int halfOpenCalls;
+
+    @Getter
+    private CircuitBreaker breaker;
+
+    @PostConstruct
+    void init() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(commandTimeoutMs))
+                .slowCallRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(Duration.ofMillis(openStateMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                // A payload that does not decode says nothing about Redis health
+                .ignoreExceptions(SerializationException.class)
+                .build();
+        breaker = CircuitBreaker.of("redis", config);
+        breaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Redis circuit breaker {}", event.getStateTransition()));
+        Gauge.builder("weather.cache.redis.circuit_breaker.open", this, cb -> cb.isOpen() ? 1 : 0)
+                .description("1 while Redis calls are short-circuited")
+                .register(registry);
+        // The breaker's own metrics restart on every state transition, count the events instead
+        Counter notPermitted = Counter.builder("weather.cache.redis.circuit_breaker.not_permitted")
+                .description("Redis calls skipped because the breaker was open")
+                .register(registry);
+        breaker.getEventPublisher().onCallNotPermitted(event -> notPermitted.increment());
+        log.info("Redis circuit breaker → failureRate={}%, window={}, slowCall={}ms, open={}ms",
+                failureRateThreshold, slidingWindowSize, commandTimeoutMs, openStateMs);
+    }
+
+    /**
+     * Runs the Redis call through the breaker, returns the fallback if it fails or the breaker is open.
+     */
+    public <T> T guarded(String operation, Supplier<T> call, Supplier<T> fallback) {
+        try {
+            return breaker.executeSupplier(call);
+        } catch (CallNotPermittedException ex) {
+            log.debug("Redis circuit open, skipped {}", operation);
+            return fallback.get();
+        } catch (Exception ex) {
+            log.error("Error in {}", operation, ex);
+            return fallback.get();
+        }
+    }
+
+    public void guarded(String operation, Runnable call) {
+        guarded(operation, () -> {
+            call.run();
+            return null;
+        }, () -> null);
+    }
+
+    /**
+     * Reactive variant, the permission is taken on subscription and the outcome recorded on completion.
+     */
+    public <T> Mono<T> guarded(String operation, Mono<T> call, Supplier<Mono<T>> fallback) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquirePermission()) {
+                log.debug("Redis circuit open, skipped {}", operation);
+                return fallback.get();
+            }
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(value -> breaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(ex -> breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, ex))
+                    .doOnCancel(breaker::releasePermission)
+                    .onErrorResume(ex -> {
+                        log.error("Error in {}", operation, ex);
+                        return fallback.get();
+                    });
+        });
+    }
+
+    public boolean isOpen() {
+        CircuitBreaker.State state = breaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+}
@@ -0,0 +1,124 @@
+package com.shivam.weather_cache.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.weather_cache.dto.EncodedBody;
+import com.shivam.weather_cache.exception.WeatherServiceException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes forecast payloads into the final response body bytes (cache.serve_mode=bytes).
+ * - JSON is written once per SVC call / refresh, never per hit.
+ * - With cache.pregzip=true the stored body is gzip, clients without gzip support get it inflated on the fly.
+ * - The ETag content hash is taken from the same JSON, once per save.
+ * - The body is the only stored form in bytes mode, the object form is decoded from it when a caller needs the map.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseBodyEncoder {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.serve_mode}")
+    private String serveMode;
+
+    @Value("${cache.pregzip}")
+    private boolean pregzip;
+
+    // Reactive mode stores and serves the object form only (ReactiveGenericRedisServiceImpl writes :data)
+    @Value("${spring.main.web-application-type}")
+    private String webApplicationType;
+
+    public boolean isEnabled() {
+        return "bytes".equalsIgnoreCase(serveMode) && !"reactive".equalsIgnoreCase(webApplicationType);
+    }
+
+    /**
+     * True when bytes mode stores (and sends) gzip bodies.
+     */
+    public boolean isGzipEnabled() {
+        return isEnabled() && pregzip;
+    }
+
+    /**
+     * @return encoded body, or null when bytes serve mode is off
+     */
+    public EncodedBody encodeIfEnabled(Object value) {
+        return isEnabled() ? encode(value) : null;
+    }
+
+    public EncodedBody encode(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return pregzip ? new EncodedBody(gzip(json), true) : new EncodedBody(json, false);
+        } catch (JsonProcessingException ex) {
+            throw new WeatherServiceException("Could not encode forecast body", ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Object form of a stored body (gzip or plain JSON), for the callers that need the map in bytes mode
+     * (projections, batch).
+     */
+    public Map<String, Object> decode(byte[] bytes) {
+        EncodedBody body = wrap(bytes);
+        try {
+            return objectMapper.readValue(body.isGzipped() ? gunzip(body.getBytes()) : body.getBytes(), MAP_TYPE);
+        } catch (IOException ex) {
+            throw new WeatherServiceException("Could not decode forecast body", ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Hex MD5 of the JSON form of the value, stored in the entry meta and served quoted as the ETag.
+     * Depends on the content only, so every replica and every refresh with unchanged data yields the same tag.
+     */
+    public String etag(Object value) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException ex) {
+            throw new WeatherServiceException("Could not encode forecast body", ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Wraps raw bytes read from Redis, gzip is detected from its magic header.
+     */
+    public static EncodedBody wrap(byte[] bytes) {
+        boolean gzipped = bytes.length > 1 && bytes[0] == (byte) 0x1f && bytes[1] == (byte) 0x8b;
+        return new EncodedBody(bytes, gzipped);
+    }
+
+    public static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.shivam.weather_cache.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis lease so only one weather-cache replica runs the refresh scheduler:
+ * - Acquired with SET NX PX, value = {@link InstanceIdentity} id, expires on its own if the holder dies.
+ * - Renewed / released through Lua compare-and-set, a replica never touches a lease it does not own.
+ * - Leadership is trusted locally only until the last successful renew + TTL - renew interval,
+ *   so a replica cut off from Redis steps down before another one can take over.
+ * - {@code leader.enabled=false} makes every replica the leader (single instance setups).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchedulerLeaderLease {
+
+    private final RedisScript<Long> renewScript =
+            RedisScript.of(new ClassPathResource("scripts/lease_renew.lua"), Long.class);
+    private final RedisScript<Long> releaseScript =
+            RedisScript.of(new ClassPathResource("scripts/lease_release.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final InstanceIdentity instanceIdentity;
+
+    @Value("${leader.enabled}")
+    private boolean enabled;
+
+    @Value("${leader.lease_ttl_ms}")
+    private long leaseTtlMs;
+
+    @Value("${leader.renew_interval_ms}")
+    private long renewIntervalMs;
+
+    // System.nanoTime() until which this replica may act as leader, 0 = not leader
+    private volatile long leaderUntilNanos;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("Scheduler leader election disabled, this replica runs the refresh scheduler");
+            return;
+        }
+        if (renewIntervalMs * 2 > leaseTtlMs) {
+            log.warn("leader.renew_interval_ms={} should be at most half of leader.lease_ttl_ms={}",
+                    renewIntervalMs, leaseTtlMs);
+        }
+    }
+
+    public boolean isLeader() {
+        return !enabled || System.nanoTime() < leaderUntilNanos;
+    }
+
+    /**
+     * Leader check at the start of a scheduled run, takes a free lease right away
+     * instead of waiting for the next heartbeat.
+     */
+    public boolean ensureLeader() {
+        if (isLeader()) {
+            return true;
+        }
+        heartbeat();
+        return isLeader();
+    }
+
+    /**
+     * Renews the lease while held, otherwise tries to take it.
+     */
+    @Scheduled(fixedDelayString = "${leader.renew_interval_ms}")
+    public synchronized void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        boolean wasLeader = leaderUntilNanos != 0;
+        long start = System.nanoTime();
+        boolean held;
+        try {
+            held = wasLeader ? renew() || acquire() : acquire();
+        } catch (Exception ex) {
+            log.warn("Scheduler lease heartbeat failed: {}", ex.getMessage());
+            held = false;
+        }
+
+        if (held) {
+            leaderUntilNanos = start + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs - renewIntervalMs);
+            if (!wasLeader) {
+                log.info("Instance {} acquired the scheduler lease", instanceIdentity.getId());
+            }
+        } else if (wasLeader) {
+            leaderUntilNanos = 0;
+            log.warn("Instance {} lost the scheduler lease", instanceIdentity.getId());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (!enabled || leaderUntilNanos == 0) {
+            return;
+        }
+        leaderUntilNanos = 0;
+        try {
+            stringRedisTemplate.execute(releaseScript, List.of(AppConstants.RedisKeys.SCHEDULER_LEADER_LEASE),
+                    instanceIdentity.getId());
+            log.info("Instance {} released the scheduler lease", instanceIdentity.getId());
+        } catch (Exception ex) {
+            log.warn("Could not release the scheduler lease, it expires in {} ms: {}", leaseTtlMs, ex.getMessage());
+        }
+    }
+
+    private boolean acquire() {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(
+                AppConstants.RedisKeys.SCHEDULER_LEADER_LEASE, instanceIdentity.getId(), Duration.ofMillis(leaseTtlMs)));
+    }
+
+    private boolean renew() {
+        Long renewed = stringRedisTemplate.execute(renewScript, List.of(AppConstants.RedisKeys.SCHEDULER_LEADER_LEASE),
+                instanceIdentity.getId(), String.valueOf(leaseTtlMs));
+        return renewed != null && renewed == 1L;
+    }
+}
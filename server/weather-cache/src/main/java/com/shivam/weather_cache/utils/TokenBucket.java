@@ -0,0 +1,75 @@
+package com.shivam.weather_cache.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket pacer:
+ * - Refills continuously at {@code tokensPerSecond}, holds at most {@code capacity} tokens (max burst).
+ * - {@link #tryAcquire()} never blocks, {@link #acquire(long)} waits for a token until a deadline.
+ * - {@link #available(long)} bounds how much work is worth preparing for a time window.
+ * - Starts full, thread-safe.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(long capacity, double tokensPerSecond) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and tokensPerSecond > 0");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes one token, waiting for the refill if needed.
+     *
+     * @param deadlineNanos {@link System#nanoTime()} based deadline
+     * @return false if no token could be taken before the deadline
+     */
+    public boolean acquire(long deadlineNanos) throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return true;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (System.nanoTime() + waitNanos > deadlineNanos) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Upper bound of the tokens that can be taken within the next {@code withinNanos}: held tokens plus the refill.
+     */
+    public synchronized long available(long withinNanos) {
+        refill();
+        return (long) Math.floor(tokens + Math.max(0, withinNanos) * tokensPerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
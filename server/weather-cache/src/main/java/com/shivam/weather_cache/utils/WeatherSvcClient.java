@@ -3,17 +3,21 @@ package com.shivam.weather_cache.utils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.*;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.Map;
 
+/**
+ * Blocking client to the Weather SVC (servlet mode), pooled keep-alive connections (see AppConfig).
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WeatherSvcClient {
 
     private final RestTemplate restTemplate;
@@ -22,22 +26,22 @@ public class WeatherSvcClient {
     private String svcUrl;
 
     /**
-     * Calls the external Weather SVC and returns weather data
+     * Calls the external Weather SVC and returns weather data.
+     * Latency by status is recorded as http.client.requests, the uri tag is the template (one series, not one per city).
      */
     public Map<String, Object> fetchWeatherData(String city) {
         try {
-            // Safe URL construction (handles encoding)
-            String url = UriComponentsBuilder.fromUriString(svcUrl)
-                    .queryParam("city", city)
-                    .toUriString();
+            String url = uriTemplate(svcUrl);
 
             log.info("Calling Weather SVC: {} for {}", url, city);
 
+            // The city is expanded and encoded by the template handler (handles encoding)
             ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     null,
-                    new ParameterizedTypeReference<>() {}
+                    new ParameterizedTypeReference<>() {},
+                    city
             );
 
             log.info("Weather SVC response status: {}", response.getStatusCode());
@@ -53,4 +57,11 @@ public class WeatherSvcClient {
 
         }
     }
+
+    /**
+     * SVC url with a {city} query variable.
+     */
+    static String uriTemplate(String svcUrl) {
+        return svcUrl + (svcUrl.contains("?") ? "&" : "?") + "city={city}";
+    }
 }
@@ -0,0 +1,9 @@
+-- Deletes the lease only while this instance still owns it.
+-- KEYS[1] = lease key
+-- ARGV[1] = owner id (InstanceIdentity)
+-- Returns 1 if released, 0 otherwise.
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,10 @@
+-- Extends the lease only while this instance still owns it.
+-- KEYS[1] = lease key
+-- ARGV[1] = owner id (InstanceIdentity)
+-- ARGV[2] = lease TTL in ms
+-- Returns 1 if renewed, 0 if the lease is held by another instance or expired.
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
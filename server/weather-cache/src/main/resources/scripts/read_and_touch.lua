@@ -0,0 +1,40 @@
+-- Cache hit in one atomic round trip: read the value and touch its meta.
+-- KEYS[1] = weather:<city>:data, or weather:<city>:body in bytes serve mode
+-- KEYS[2] = weather:<city>:meta
+-- KEYS[3] = refresh-due index (ZSET)
+-- ARGV[1] = now (epoch ms)
+-- ARGV[2] = TTL extension in seconds, 0 keeps the current TTLs
+-- ARGV[3] = due time used if the city is not in the index
+-- ARGV[4] = city key (index member)
+-- ARGV[5..] = meta fields returned with the value
+-- Returns {value, meta field values...} or nil on a miss.
+
+local value = redis.call('GET', KEYS[1])
+if not value then
+    return false
+end
+
+redis.call('HINCRBY', KEYS[2], 'hits', 1)
+redis.call('HSET', KEYS[2], 'lastAccess', ARGV[1])
+
+local extension = tonumber(ARGV[2])
+if extension > 0 then
+    redis.call('EXPIRE', KEYS[1], extension)
+    redis.call('EXPIRE', KEYS[2], extension)
+    redis.call('HSET', KEYS[2], 'expiresAt', tonumber(ARGV[1]) + extension * 1000)
+elseif redis.call('PTTL', KEYS[2]) < 0 then
+    -- Meta was recreated by HINCRBY, give it the data key's TTL
+    local pttl = redis.call('PTTL', KEYS[1])
+    if pttl > 0 then
+        redis.call('PEXPIRE', KEYS[2], pttl)
+    end
+end
+
+redis.call('ZADD', KEYS[3], 'NX', ARGV[3], ARGV[4])
+
+local result = { value }
+for i = 5, #ARGV do
+    -- false (missing field) keeps its slot and is returned as nil
+    result[#result + 1] = redis.call('HGET', KEYS[2], ARGV[i])
+end
+return result
@@ -0,0 +1,25 @@
+-- Halves every cell of the shared popularity sketch, at most once per decay interval.
+-- KEYS[1] = popularity sketch (hash, field = cell index, value = count)
+-- KEYS[2] = last decay time (epoch ms)
+-- ARGV[1] = now (epoch ms)
+-- ARGV[2] = decay interval in ms
+-- Returns the number of cells left, or -1 if the interval has not elapsed yet.
+
+local last = tonumber(redis.call('GET', KEYS[2]) or '0')
+if tonumber(ARGV[1]) - last < tonumber(ARGV[2]) then
+    return -1
+end
+redis.call('SET', KEYS[2], ARGV[1])
+
+local cells = redis.call('HGETALL', KEYS[1])
+local left = 0
+for i = 1, #cells, 2 do
+    local halved = math.floor(tonumber(cells[i + 1]) / 2)
+    if halved > 0 then
+        redis.call('HSET', KEYS[1], cells[i], halved)
+        left = left + 1
+    else
+        redis.call('HDEL', KEYS[1], cells[i])
+    end
+end
+return left
@@ -0,0 +1,60 @@
+package com.shivam.weather_cache.benchmark;
+
+import com.shivam.weather_cache.exception.BadRequestException;
+import com.shivam.weather_cache.utils.CityUtils;
+import com.shivam.weather_cache.utils.WeatherUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * City validation run on every request: {@link CityUtils} and {@link WeatherUtils} (String.matches, the pattern
+ * is compiled per call) against a precompiled pattern baseline. The invalid input includes the exception cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CityValidationBenchmark {
+
+    private static final Pattern CITY = Pattern.compile("^[A-Za-z\\s-]+$");
+
+    @Param({"Indore", "  San Francisco  ", "Saint-Denis-de-la-Reunion", "Paris1"})
+    private String city;
+
+    @Benchmark
+    public String cityUtils() {
+        try {
+            return CityUtils.validateAndTrimCity(city);
+        } catch (BadRequestException ex) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String weatherUtils() {
+        try {
+            return WeatherUtils.validateAndTrimCity(city);
+        } catch (BadRequestException ex) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String precompiledBaseline() {
+        String trimmed = city.trim();
+        return !trimmed.isEmpty() && CITY.matcher(trimmed).matches() ? trimmed : null;
+    }
+}
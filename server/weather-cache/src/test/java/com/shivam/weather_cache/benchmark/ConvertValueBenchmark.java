@@ -0,0 +1,60 @@
+package com.shivam.weather_cache.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.weather_cache.codec.CompactValueRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code objectMapper.convertValue(value, Map)} as done by WeatherCacheServiceImpl on every Redis hit,
+ * against the plain cast it could be when the decoded value already is a map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertValueBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Param({"8", "40"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    // As returned by the Redis value serializer
+    private Object cached;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        CompactValueRedisSerializer serializer = new CompactValueRedisSerializer(false, 3, null);
+        cached = serializer.deserialize(serializer.serialize(ForecastFixtures.response(items)));
+    }
+
+    @Benchmark
+    public Map<String, Object> convertValue() {
+        return objectMapper.convertValue(cached, MAP_TYPE);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> castBaseline() {
+        return cached instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.shivam.weather_cache.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weather SVC response bodies as the cache holds them (decoded JSON maps), seeded so every run sees the same data.
+ */
+final class ForecastFixtures {
+
+    private static final String[][] CONDITIONS = {
+            {"800", "Clear", "clear sky", "01d"},
+            {"803", "Clouds", "broken clouds", "04d"},
+            {"500", "Rain", "light rain", "10d"},
+            {"211", "Thunderstorm", "thunderstorm", "11d"}
+    };
+    private static final DateTimeFormatter DT_TXT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private ForecastFixtures() {
+    }
+
+    /**
+     * {@code {success, message, data: [count forecast items]}}, 8 = one day (default API_CNT), 40 = five days.
+     */
+    static Map<String, Object> response(int count) {
+        Random random = new Random(42);
+        LocalDateTime slot = LocalDateTime.of(2025, 7, 1, 0, 0);
+        List<Map<String, Object>> data = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            double temp = round(15 + random.nextDouble() * 30);
+            Map<String, Object> main = new LinkedHashMap<>();
+            main.put("temp", temp);
+            main.put("feels_like", round(temp + random.nextDouble() * 3));
+            main.put("temp_min", round(temp - random.nextDouble() * 2));
+            main.put("temp_max", round(temp + random.nextDouble() * 2));
+            main.put("pressure", 1000 + random.nextInt(25));
+            main.put("sea_level", 1010);
+            main.put("grnd_level", 970);
+            main.put("humidity", 30 + random.nextInt(60));
+            main.put("temp_kf", 0.0);
+
+            String[] condition = CONDITIONS[random.nextInt(CONDITIONS.length)];
+            Map<String, Object> weather = new LinkedHashMap<>();
+            weather.put("id", Integer.parseInt(condition[0]));
+            weather.put("main", condition[1]);
+            weather.put("description", condition[2]);
+            weather.put("icon", condition[3]);
+
+            double speed = round(random.nextDouble() * 15);
+            Map<String, Object> wind = new LinkedHashMap<>();
+            wind.put("speed", speed);
+            wind.put("deg", random.nextInt(360));
+            wind.put("gust", round(speed * 1.5));
+
+            List<String> predictions = new ArrayList<>();
+            if ("Rain".equals(condition[1])) predictions.add("Carry umbrella");
+            if ("Thunderstorm".equals(condition[1])) predictions.add("Don't step out! A Storm is brewing!");
+            if (speed > 10) predictions.add("It's too windy, watch out!");
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("dt_txt", slot.plusHours(3L * i).format(DT_TXT));
+            item.put("main", main);
+            item.put("weather", List.of(weather));
+            item.put("wind", wind);
+            item.put("predictions", predictions);
+            data.add(item);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "Forecast fetched successfully");
+        response.put("data", data);
+        return response;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
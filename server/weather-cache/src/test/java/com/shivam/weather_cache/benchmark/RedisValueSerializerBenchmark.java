@@ -0,0 +1,59 @@
+package com.shivam.weather_cache.benchmark;
+
+import com.shivam.weather_cache.codec.CompactValueRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serializer on a forecast payload, per codec ({@code redis.value_codec}):
+ * - json: legacy GenericJackson2JsonRedisSerializer format (typed JSON)
+ * - compact: Smile + zstd at the default level, no dictionary
+ * deserialize is what every Redis hit pays, serialize every save / refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisValueSerializerBenchmark {
+
+    @Param({"json", "compact"})
+    private String codec;
+
+    @Param({"8", "40"})
+    private int items;
+
+    private CompactValueRedisSerializer serializer;
+    private Map<String, Object> value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = new CompactValueRedisSerializer("compact".equals(codec), 3, null);
+        value = ForecastFixtures.response(items);
+        encoded = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(encoded);
+    }
+}
@@ -0,0 +1,90 @@
+package com.shivam.weather_cache.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompactValueRedisSerializerTest {
+
+    private final CompactValueRedisSerializer compact = new CompactValueRedisSerializer(true, 3, null);
+
+    @Test
+    void compactRoundTrip() {
+        Map<String, Object> value = forecast();
+        byte[] bytes = compact.serialize(value);
+
+        assertEquals(CompactValueRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(CompactValueRedisSerializer.VERSION_SMILE_ZSTD, bytes[1]);
+        assertEquals(value, compact.deserialize(bytes));
+    }
+
+    @Test
+    void compactRoundTripWithDictionary() {
+        byte[] dictionary = new GenericJackson2JsonRedisSerializer().serialize(forecast());
+        CompactValueRedisSerializer withDictionary = new CompactValueRedisSerializer(true, 3, dictionary);
+
+        assertEquals(forecast(), withDictionary.deserialize(withDictionary.serialize(forecast())));
+    }
+
+    @Test
+    void readsLegacyJson() {
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(forecast());
+
+        assertEquals(forecast(), compact.deserialize(legacy));
+    }
+
+    @Test
+    void legacyWritesUntilCompactWritesAreOn() {
+        CompactValueRedisSerializer legacyWriter = new CompactValueRedisSerializer(false, 3, null);
+        byte[] bytes = legacyWriter.serialize(forecast());
+
+        assertEquals('{', bytes[0]);
+        assertEquals(forecast(), compact.deserialize(bytes));
+        assertEquals(forecast(), legacyWriter.deserialize(compact.serialize(forecast())));
+    }
+
+    @Test
+    void unknownVersionIsAMiss() {
+        byte[] bytes = compact.serialize(forecast());
+        bytes[1] = 2;
+
+        assertNull(compact.deserialize(bytes));
+        assertNull(compact.deserialize(new byte[]{CompactValueRedisSerializer.MAGIC}));
+    }
+
+    @Test
+    void truncatedFrameIsAMiss() {
+        byte[] bytes = compact.serialize(forecast());
+
+        assertNull(compact.deserialize(Arrays.copyOf(bytes, bytes.length / 2)));
+        assertNull(compact.deserialize(Arrays.copyOf(bytes, 3)));
+    }
+
+    @Test
+    void nullAndEmpty() {
+        assertArrayEquals(new byte[0], compact.serialize(null));
+        assertNull(compact.deserialize(null));
+        assertNull(compact.deserialize(new byte[0]));
+    }
+
+    private static Map<String, Object> forecast() {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("dt_txt", "2025-10-18 09:00:00");
+        item.put("main", Map.of("temp", 12.5, "humidity", 80));
+        item.put("weather", List.of(Map.of("icon", "01d", "main", "Clear")));
+
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("success", true);
+        value.put("message", "ok");
+        value.put("data", List.of(item, item));
+        return value;
+    }
+}
@@ -0,0 +1,63 @@
+package com.shivam.weather_cache.dto;
+
+import com.shivam.weather_common.projection.ForecastProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheValidatorsTest {
+
+    private static final Instant NOW = Instant.parse("2025-10-18T10:30:00Z");
+    private static final long LAST_MODIFIED = Instant.parse("2025-10-18T08:00:00Z").toEpochMilli();
+
+    private final CacheValidators full = new CacheValidators("\"abc\"", LAST_MODIFIED, 86400, CacheStatus.HIT);
+
+    @Test
+    void ifNoneMatchTakesPrecedence() {
+        assertTrue(full.isNotModified(List.of("\"abc\""), -1));
+        assertTrue(full.isNotModified(List.of("W/\"abc\""), -1));
+        assertTrue(full.isNotModified(List.of("\"x\"", "*"), -1));
+        assertFalse(full.isNotModified(List.of("\"x\""), LAST_MODIFIED));
+    }
+
+    @Test
+    void ifModifiedSinceHasSecondPrecision() {
+        assertTrue(full.isNotModified(List.of(), LAST_MODIFIED + 999));
+        assertFalse(full.isNotModified(List.of(), LAST_MODIFIED - 1));
+        assertFalse(full.isNotModified(List.of(), -1));
+    }
+
+    @Test
+    void fullForecastKeepsTheValidators() {
+        assertSame(full, CacheValidators.projected(full, ForecastProjection.NONE, NOW));
+        assertNull(CacheValidators.projected(null, ForecastProjection.of("main", null, null, null), NOW));
+    }
+
+    @Test
+    void projectionGetsItsOwnEtag() {
+        CacheValidators projected = CacheValidators.projected(full, ForecastProjection.of("main", null, null, null), NOW);
+
+        assertNotEquals(full.getEtag(), projected.getEtag());
+        assertFalse(projected.isNotModified(List.of(full.getEtag()), -1));
+        assertTrue(projected.isNotModified(List.of(projected.getEtag()), -1));
+        assertEquals(LAST_MODIFIED, projected.getLastModified());
+        assertEquals(86400, projected.getMaxAgeSeconds());
+        assertEquals(CacheStatus.HIT, projected.getStatus());
+    }
+
+    @Test
+    void relativeWindowEndsAtTheNextSlot() {
+        CacheValidators projected = CacheValidators.projected(full, ForecastProjection.of(null, null, null, 6), NOW);
+
+        assertEquals(Instant.parse("2025-10-18T09:00:00Z").toEpochMilli(), projected.getLastModified());
+        assertEquals(5400, projected.getMaxAgeSeconds());
+    }
+}
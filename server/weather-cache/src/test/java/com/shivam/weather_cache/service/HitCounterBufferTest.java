@@ -0,0 +1,126 @@
+package com.shivam.weather_cache.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitCounterBufferTest {
+
+    private static final int THREADS = 8;
+    private static final int HITS_PER_THREAD = 200_000;
+    private static final List<String> KEYS = List.of("weather:a", "weather:b", "weather:c", "weather:d");
+    // Hit rarely, its counter keeps going idle and being retired while hits still arrive
+    private static final String SPARSE_KEY = "weather:sparse";
+
+    private final HitCounterBuffer buffer = new HitCounterBuffer(new PopularitySketch() {
+        @Override
+        public void record(String key) {
+        }
+    });
+
+    @Test
+    void drainReturnsHitsSinceThePreviousDrain() {
+        buffer.record("weather:a", 100);
+        buffer.record("weather:a", 300);
+        buffer.record("weather:a", 200);
+        buffer.record("weather:b", 50);
+
+        assertEquals(Map.of("weather:a", new HitCounterBuffer.HitSnapshot(3, 300),
+                "weather:b", new HitCounterBuffer.HitSnapshot(1, 50)), buffer.drain());
+        assertEquals(Map.of(), buffer.drain());
+    }
+
+    @Test
+    void idleCountersAreDroppedAfterOneInterval() {
+        buffer.record("weather:a", 100);
+        buffer.drain();
+        assertEquals(1, buffer.size());
+
+        buffer.drain();
+        assertEquals(0, buffer.size());
+
+        buffer.record("weather:a", 400);
+        assertEquals(Map.of("weather:a", new HitCounterBuffer.HitSnapshot(1, 400)), buffer.drain());
+    }
+
+    @Test
+    void concurrentRecordAndDrainLoseNoHits() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean recording = new AtomicBoolean(true);
+        try {
+            List<Future<Map<String, long[]>>> recorders = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                recorders.add(executor.submit(() -> {
+                    start.await();
+                    // key → {hits, max now}
+                    Map<String, long[]> recorded = new HashMap<>();
+                    for (int i = 0; i < HITS_PER_THREAD; i++) {
+                        String key = i % 1_000 == 0 ? SPARSE_KEY : KEYS.get((offset + i) % KEYS.size());
+                        long now = ThreadLocalRandom.current().nextLong(1, 1_000_000_000L);
+                        buffer.record(key, now);
+                        long[] total = recorded.computeIfAbsent(key, k -> new long[2]);
+                        total[0]++;
+                        total[1] = Math.max(total[1], now);
+                    }
+                    return recorded;
+                }));
+            }
+            Future<Map<String, long[]>> drainer = executor.submit(() -> {
+                start.await();
+                Map<String, long[]> drained = new HashMap<>();
+                while (recording.get()) {
+                    add(drained, buffer.drain());
+                }
+                add(drained, buffer.drain());
+                return drained;
+            });
+
+            start.countDown();
+            Map<String, long[]> expected = new HashMap<>();
+            for (Future<Map<String, long[]>> recorder : recorders) {
+                recorder.get(30, TimeUnit.SECONDS).forEach((key, total) -> {
+                    long[] sum = expected.computeIfAbsent(key, k -> new long[2]);
+                    sum[0] += total[0];
+                    sum[1] = Math.max(sum[1], total[1]);
+                });
+            }
+            recording.set(false);
+            Map<String, long[]> drained = drainer.get(30, TimeUnit.SECONDS);
+
+            assertEquals(expected.keySet(), drained.keySet());
+            long totalHits = 0;
+            for (String key : expected.keySet()) {
+                assertEquals(expected.get(key)[0], drained.get(key)[0], "hits of " + key);
+                assertEquals(expected.get(key)[1], drained.get(key)[1], "lastAccess of " + key);
+                totalHits += drained.get(key)[0];
+            }
+            assertEquals((long) THREADS * HITS_PER_THREAD, totalHits);
+            assertTrue(buffer.drain().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void add(Map<String, long[]> drained, Map<String, HitCounterBuffer.HitSnapshot> snapshot) {
+        snapshot.forEach((key, hit) -> {
+            long[] total = drained.computeIfAbsent(key, k -> new long[2]);
+            total[0] += hit.hits();
+            total[1] = Math.max(total[1], hit.lastAccess());
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package com.shivam.weather_cache.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 2048;
+    private static final int KEYS = 500;
+
+    @Test
+    void rejectsEmptyDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 0));
+    }
+
+    @Test
+    void cellIndexesAreOnePerRowAndStable() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        int[] cells = sketch.cellIndexes("weather:pune");
+
+        assertEquals(DEPTH, cells.length);
+        for (int row = 0; row < DEPTH; row++) {
+            assertTrue(cells[row] >= row * WIDTH && cells[row] < (row + 1) * WIDTH);
+        }
+        assertEquals(Map.of(), sketch.drain());
+        // Same layout on every replica
+        assertArrayEquals(cells, new CountMinSketch(DEPTH, WIDTH).cellIndexes("weather:pune"));
+    }
+
+    @Test
+    void estimateNeverUnderCountsAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        Map<String, Long> counts = skewedHits(sketch);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        // Over-count <= e / width * total with probability >= 1 - e^-depth per key
+        long bound = (long) Math.ceil(Math.E / WIDTH * total);
+        int overBound = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), "under-count of " + entry.getKey());
+            if (estimate - entry.getValue() > bound) overBound++;
+        }
+        assertTrue(overBound <= KEYS * Math.exp(-DEPTH), overBound + " keys over the error bound");
+        assertEquals(0, new CountMinSketch(DEPTH, WIDTH).estimate("weather:unknown"));
+    }
+
+    @Test
+    void drainHandsOverAndResetsTheCells() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        for (int i = 0; i < 5; i++) sketch.increment("weather:pune");
+
+        Map<Integer, Long> drained = sketch.drain();
+        assertEquals(DEPTH, drained.size());
+        for (int cell : sketch.cellIndexes("weather:pune")) {
+            assertEquals(5L, drained.get(cell));
+        }
+        assertEquals(0, sketch.estimate("weather:pune"));
+        assertEquals(Map.of(), sketch.drain());
+    }
+
+    @Test
+    void decayedScoreStaysWithinBounds() {
+        CountMinSketch local = new CountMinSketch(DEPTH, WIDTH);
+        Map<String, Long> counts = skewedHits(local);
+        Map<Integer, Long> shared = new HashMap<>(local.drain());
+
+        Map<String, Long> before = new HashMap<>();
+        counts.keySet().forEach(key -> before.put(key, estimate(shared, local, key)));
+        halve(shared);
+
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            long decayed = estimate(shared, local, entry.getKey());
+            assertTrue(decayed >= entry.getValue() / 2, "decayed below half of " + entry.getKey());
+            assertTrue(decayed <= before.get(entry.getKey()) / 2, "decayed above half the estimate of " + entry.getKey());
+        }
+    }
+
+    @Test
+    void decayFadesColdKeysButKeepsHotOnes() {
+        CountMinSketch local = new CountMinSketch(DEPTH, WIDTH);
+        Map<Integer, Long> shared = new HashMap<>();
+        for (int i = 0; i < 1000; i++) local.increment("weather:cold");
+
+        for (int interval = 0; interval < 11; interval++) {
+            halve(shared);
+            for (int i = 0; i < 100; i++) local.increment("weather:hot");
+            local.drain().forEach((cell, count) -> shared.merge(cell, count, Long::sum));
+        }
+
+        // 1000 halved 10 times, the hot key keeps about two intervals of hits (100 + 50 + 25 ...)
+        assertEquals(0, estimate(shared, local, "weather:cold"));
+        long hot = estimate(shared, local, "weather:hot");
+        assertTrue(hot >= 100 && hot < 200, "hot score " + hot);
+    }
+
+    /**
+     * Zipf-like hits over KEYS cities: city i gets about 2000 / (i + 1) hits.
+     */
+    private static Map<String, Long> skewedHits(CountMinSketch sketch) {
+        Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            String key = "weather:city-" + i;
+            long hits = Math.max(1, 2000 / (i + 1));
+            for (long h = 0; h < hits; h++) sketch.increment(key);
+            counts.put(key, hits);
+        }
+        return counts;
+    }
+
+    /**
+     * Score of a key in the shared cells, min over its rows (GenericRedisServiceImpl.getPopularity).
+     */
+    private static long estimate(Map<Integer, Long> shared, CountMinSketch sketch, String key) {
+        long min = Long.MAX_VALUE;
+        for (int cell : sketch.cellIndexes(key)) {
+            min = Math.min(min, shared.getOrDefault(cell, 0L));
+        }
+        return min;
+    }
+
+    /**
+     * Same halving as scripts/sketch_decay.lua: floor(count / 2), cells reaching 0 are removed.
+     */
+    private static void halve(Map<Integer, Long> shared) {
+        shared.replaceAll((cell, count) -> count / 2);
+        shared.values().removeIf(count -> count == 0);
+    }
+}
@@ -0,0 +1,162 @@
+package com.shivam.weather_cache.utils;
+
+import com.shivam.weather_cache.exception.WeatherServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InflightRequestCoalescerTest {
+
+    private static final int CALLERS = 16;
+    private static final String KEY = "weather:pune";
+
+    private final InflightRequestCoalescer coalescer = new InflightRequestCoalescer();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Thread> callerThreads = new ArrayList<>();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescer, "maxWaitMs", 5_000L);
+        executor = Executors.newFixedThreadPool(CALLERS, runnable -> {
+            Thread thread = new Thread(runnable);
+            synchronized (callerThreads) {
+                callerThreads.add(thread);
+            }
+            return thread;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() throws Exception {
+        Map<String, Object> forecast = Map.of("success", true);
+        List<Future<Map<String, Object>>> results = callConcurrently(() -> forecast);
+
+        for (Future<Map<String, Object>> result : results) {
+            assertSame(forecast, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertTrue(inflight().isEmpty());
+    }
+
+    @Test
+    void everyCallerGetsTheLeadersException() throws Exception {
+        WeatherServiceException failure = new WeatherServiceException("City not found: pune", HttpStatus.NOT_FOUND);
+        List<Future<Map<String, Object>>> results = callConcurrently(() -> {
+            throw failure;
+        });
+
+        for (Future<Map<String, Object>> result : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, ex.getCause());
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertTrue(inflight().isEmpty());
+
+        // Failures are not cached, the next caller runs the supplier again
+        assertEquals("retry", coalescer.execute(KEY, () -> "retry"));
+    }
+
+    @Test
+    void waitersGiveUpAfterMaxWait() throws Exception {
+        ReflectionTestUtils.setField(coalescer, "maxWaitMs", 50L);
+        Future<String> leader = executor.submit(() -> coalescer.execute(KEY, () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "late";
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        WeatherServiceException ex = assertThrows(WeatherServiceException.class,
+                () -> coalescer.execute(KEY, () -> "second call"));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, ex.getStatus());
+
+        release.countDown();
+        assertEquals("late", leader.get(5, TimeUnit.SECONDS));
+        assertTrue(inflight().isEmpty());
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        assertEquals("pune", coalescer.execute("weather:pune", () -> "pune"));
+        assertEquals("delhi", coalescer.execute("weather:delhi", () -> "delhi"));
+        assertTrue(inflight().isEmpty());
+    }
+
+    /**
+     * One leader blocked in the supplier, the other callers started once it is running and released once
+     * they all wait on its result.
+     */
+    private <T> List<Future<T>> callConcurrently(Supplier<T> upstream) throws InterruptedException {
+        Supplier<T> supplier = () -> {
+            upstreamCalls.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return upstream.get();
+        };
+        List<Future<T>> results = new ArrayList<>();
+        results.add(executor.submit(() -> coalescer.execute(KEY, supplier)));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.execute(KEY, supplier)));
+        }
+        awaitAllBlocked();
+        release.countDown();
+        return results;
+    }
+
+    private void awaitAllBlocked() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (callerThreads) {
+                if (callerThreads.size() == CALLERS && callerThreads.stream().allMatch(
+                        thread -> thread.getState() == Thread.State.WAITING || thread.getState() == Thread.State.TIMED_WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Callers did not join the inflight request");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> inflight() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(coalescer, "inflight");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.shivam.weather_cache.utils;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisCircuitBreakerTest {
+
+    private static final long OPEN_STATE_MS = 100;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger sent = new AtomicInteger();
+    private RedisCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void breaker() {
+        circuitBreaker = new RedisCircuitBreaker(registry);
+        ReflectionTestUtils.setField(circuitBreaker, "commandTimeoutMs", 50L);
+        ReflectionTestUtils.setField(circuitBreaker, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(circuitBreaker, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 4);
+        ReflectionTestUtils.setField(circuitBreaker, "openStateMs", OPEN_STATE_MS);
+        ReflectionTestUtils.setField(circuitBreaker, "halfOpenCalls", 2);
+        circuitBreaker.init();
+    }
+
+    @Test
+    void failuresReturnTheFallbackAndOpenTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals("fallback", call(this::fail));
+        }
+        assertTrue(circuitBreaker.isOpen());
+        assertEquals(1.0, registry.get("weather.cache.redis.circuit_breaker.open").gauge().value());
+
+        // Open: not sent to Redis at all
+        assertEquals("fallback", call(this::succeed));
+        assertEquals(4, sent.get());
+        assertEquals(1.0, registry.get("weather.cache.redis.circuit_breaker.not_permitted").counter().count());
+    }
+
+    @Test
+    void staysClosedBelowTheMinimumCallsAndTheFailureRate() {
+        for (int i = 0; i < 3; i++) call(this::fail);
+        assertFalse(circuitBreaker.isOpen());
+
+        // At most 1 failure in any 4 consecutive calls = 25 %
+        circuitBreaker.getBreaker().reset();
+        for (int i = 0; i < 3; i++) call(this::succeed);
+        call(this::fail);
+        for (int i = 0; i < 3; i++) call(this::succeed);
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void slowCallsOpenTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals("ok", call(() -> {
+                sleep(70);
+                return succeed();
+            }));
+        }
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void undecodablePayloadsAreIgnored() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals("fallback", call(() -> {
+                sent.incrementAndGet();
+                throw new SerializationException("bad payload");
+            }));
+        }
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void successfulProbesCloseTheBreaker() {
+        open();
+        sleep(OPEN_STATE_MS + 50);
+
+        assertEquals("ok", call(this::succeed));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getBreaker().getState());
+        assertEquals("ok", call(this::succeed));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getBreaker().getState());
+        assertEquals(0.0, registry.get("weather.cache.redis.circuit_breaker.open").gauge().value());
+    }
+
+    @Test
+    void failedProbesReopenTheBreaker() {
+        open();
+        // Still open before the wait duration, no probe is sent
+        assertEquals("fallback", call(this::succeed));
+        assertEquals(4, sent.get());
+
+        sleep(OPEN_STATE_MS + 50);
+        call(this::fail);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getBreaker().getState());
+        call(this::fail);
+        assertTrue(circuitBreaker.isOpen());
+        assertEquals("fallback", call(this::succeed));
+        assertEquals(6, sent.get());
+    }
+
+    @Test
+    void reactiveCallsShareTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            Mono<String> failing = Mono.defer(() -> {
+                sent.incrementAndGet();
+                return Mono.error(new RedisConnectionFailureException("down"));
+            });
+            assertEquals("fallback", circuitBreaker.guarded("test", failing, () -> Mono.just("fallback")).block());
+        }
+        assertTrue(circuitBreaker.isOpen());
+
+        // Open: the call is never subscribed, and the blocking variant is short-circuited too
+        Mono<String> call = Mono.fromSupplier(this::succeed);
+        assertEquals("fallback", circuitBreaker.guarded("test", call, () -> Mono.just("fallback")).block());
+        assertEquals("fallback", call(this::succeed));
+        assertEquals(4, sent.get());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) call(this::fail);
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    private String call(Supplier<String> redisCall) {
+        return circuitBreaker.guarded("test", redisCall, () -> "fallback");
+    }
+
+    private String succeed() {
+        sent.incrementAndGet();
+        return "ok";
+    }
+
+    private String fail() {
+        sent.incrementAndGet();
+        throw new RedisConnectionFailureException("down");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.shivam.weather_cache.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SchedulerLeaderLeaseTest {
+
+    private static final String LEASE = AppConstants.RedisKeys.SCHEDULER_LEADER_LEASE;
+
+    // Lease key as Redis holds it, shared by the replicas of a test (expiry is simulated by removing it)
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+
+    private StringRedisTemplate template;
+    private ValueOperations<String, String> values;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void fakeRedis() {
+        template = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(template.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(eq(LEASE), anyString(), any(Duration.class)))
+                .thenAnswer(call -> redis.putIfAbsent(LEASE, call.getArgument(1)) == null);
+        // lease_renew.lua / lease_release.lua: compare the owner, then PEXPIRE / DEL
+        doAnswer(call -> {
+            RedisScript<Long> script = call.getArgument(0);
+            String owner = call.getArgument(2);
+            if (!owner.equals(redis.get(LEASE))) return 0L;
+            if (!script.getScriptAsString().contains("PEXPIRE")) redis.remove(LEASE);
+            return 1L;
+        }).when(template).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void acquiresAFreeLease() {
+        SchedulerLeaderLease a = lease(true, 15_000, 5_000);
+        SchedulerLeaderLease b = lease(true, 15_000, 5_000);
+
+        assertTrue(a.ensureLeader());
+        assertEquals(id(a), redis.get(LEASE));
+        assertFalse(b.ensureLeader());
+        assertFalse(b.isLeader());
+    }
+
+    @Test
+    void renewsWhileHeld() {
+        SchedulerLeaderLease a = lease(true, 15_000, 5_000);
+        a.heartbeat();
+        a.heartbeat();
+        a.heartbeat();
+
+        assertTrue(a.isLeader());
+        verify(values, times(1)).setIfAbsent(eq(LEASE), anyString(), any(Duration.class));
+        verify(template, times(2)).execute(any(RedisScript.class), eq(List.of(LEASE)), eq(id(a)), eq("15000"));
+    }
+
+    @Test
+    void retakesItsExpiredLease() {
+        SchedulerLeaderLease a = lease(true, 15_000, 5_000);
+        a.heartbeat();
+        redis.remove(LEASE);
+
+        a.heartbeat();
+        assertTrue(a.isLeader());
+        assertEquals(id(a), redis.get(LEASE));
+    }
+
+    @Test
+    void stepsDownWhenAnotherReplicaTookOver() {
+        SchedulerLeaderLease a = lease(true, 15_000, 5_000);
+        SchedulerLeaderLease b = lease(true, 15_000, 5_000);
+        a.heartbeat();
+        // a's lease expired (e.g. a long GC pause) and b took it
+        redis.remove(LEASE);
+        assertTrue(b.ensureLeader());
+
+        a.heartbeat();
+        assertFalse(a.isLeader());
+        assertEquals(id(b), redis.get(LEASE));
+    }
+
+    @Test
+    void releaseOnlyDeletesItsOwnLease() {
+        SchedulerLeaderLease a = lease(true, 15_000, 5_000);
+        SchedulerLeaderLease b = lease(true, 15_000, 5_000);
+        a.heartbeat();
+        redis.put(LEASE, id(b));
+
+        a.release();
+        assertFalse(a.isLeader());
+        assertEquals(id(b), redis.get(LEASE));
+
+        redis.remove(LEASE);
+        b.heartbeat();
+        b.release();
+        assertNull(redis.get(LEASE));
+        assertTrue(a.ensureLeader());
+    }
+
+    @Test
+    void redisErrorsMeanNotLeader() {
+        SchedulerLeaderLease a = lease(true, 15_000, 5_000);
+        when(values.setIfAbsent(eq(LEASE), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertFalse(a.ensureLeader());
+    }
+
+    @Test
+    void leadershipIsTrustedOnlyUntilTtlMinusRenewInterval() throws InterruptedException {
+        SchedulerLeaderLease a = lease(true, 300, 100);
+        a.heartbeat();
+        assertTrue(a.isLeader());
+
+        // No renew for longer than ttl - renew interval (200 ms), the lease may already be someone else's
+        Thread.sleep(350);
+        assertFalse(a.isLeader());
+    }
+
+    @Test
+    void disabledMakesEveryReplicaTheLeader() {
+        SchedulerLeaderLease a = lease(false, 15_000, 5_000);
+        a.heartbeat();
+        a.release();
+
+        assertTrue(a.isLeader());
+        assertTrue(a.ensureLeader());
+        verifyNoInteractions(template);
+    }
+
+    private SchedulerLeaderLease lease(boolean enabled, long ttlMs, long renewIntervalMs) {
+        SchedulerLeaderLease lease = new SchedulerLeaderLease(template, new InstanceIdentity());
+        ReflectionTestUtils.setField(lease, "enabled", enabled);
+        ReflectionTestUtils.setField(lease, "leaseTtlMs", ttlMs);
+        ReflectionTestUtils.setField(lease, "renewIntervalMs", renewIntervalMs);
+        return lease;
+    }
+
+    private static String id(SchedulerLeaderLease lease) {
+        return ((InstanceIdentity) ReflectionTestUtils.getField(lease, "instanceIdentity")).getId();
+    }
+}
@@ -0,0 +1,276 @@
+package com.shivam.weather_common.projection;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Field projection and time-window slicing of a forecast ({@code /forecast} query parameters), one implementation
+ * for weather-svc (DTO items) and weather-cache (cached maps):
+ * - fields: comma separated item fields, dotted for nested ones (main.temp, weather.icon, wind.speed), dt_txt is always kept
+ * - from / to: ISO date, date-time (UTC) or instant, to is exclusive
+ * - hours: window length from {@code from}, or from the current 3-hour slot when {@code from} is not given
+ * Items are never modified (the cache shares them with its near cache): kept items are returned as-is without
+ * fields, otherwise only the projected maps are new and their leaf values are shared.
+ * dt_txt is a fixed width UTC "yyyy-MM-dd HH:mm:ss", the window is compared as strings, no date parsing per item.
+ */
+public final class ForecastProjection {
+
+    public static final ForecastProjection NONE = new ForecastProjection(null, null, null, 0);
+
+    private static final String DATA = "data";
+    private static final String DT_TXT = "dt_txt";
+    private static final List<String> ITEM_FIELDS = List.of(DT_TXT, "main", "weather", "wind", "predictions");
+    private static final long SLOT_MILLIS = TimeUnit.HOURS.toMillis(3);
+    private static final DateTimeFormatter DT_TXT_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    // Item field → nested fields to keep (empty = whole value), null = every field
+    private final Map<String, Set<String>> fields;
+    private final Instant from;
+    private final Instant to;
+    private final int hours;
+
+    private ForecastProjection(Map<String, Set<String>> fields, Instant from, Instant to, int hours) {
+        this.fields = fields;
+        this.from = from;
+        this.to = to;
+        this.hours = hours;
+    }
+
+    /**
+     * Parses and validates the query parameters, null / blank parameters are not set.
+     *
+     * @throws InvalidProjectionException on an unknown field, an unparsable date or an inconsistent window
+     */
+    public static ForecastProjection of(String fields, String from, String to, Integer hours) {
+        if (isBlank(fields) && isBlank(from) && isBlank(to) && hours == null) {
+            return NONE;
+        }
+        if (hours != null && hours <= 0) {
+            throw new InvalidProjectionException("hours must be greater than 0");
+        }
+        if (hours != null && !isBlank(to)) {
+            throw new InvalidProjectionException("Use either hours or to, not both");
+        }
+        Instant fromInstant = parseInstant("from", from);
+        Instant toInstant = parseInstant("to", to);
+        if (fromInstant != null && toInstant != null && !fromInstant.isBefore(toInstant)) {
+            throw new InvalidProjectionException("from must be before to");
+        }
+        return new ForecastProjection(parseFields(fields), fromInstant, toInstant, hours == null ? 0 : hours);
+    }
+
+    public boolean isIdentity() {
+        return this == NONE;
+    }
+
+    /**
+     * Projection of a response envelope {success, message, data: [item maps]}: a new map with the kept items,
+     * the other top level entries are copied by reference. Returned unchanged when it has no item list (error payloads).
+     */
+    public Map<String, Object> apply(Map<String, Object> response, Instant now) {
+        if (isIdentity() || response == null || !(response.get(DATA) instanceof List<?> items)) {
+            return response;
+        }
+        List<Map<?, ?>> maps = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item instanceof Map<?, ?> map) maps.add(map);
+        }
+        Map<String, Object> projected = new LinkedHashMap<>(response);
+        projected.put(DATA, apply(maps,
+                item -> item.get(DT_TXT) instanceof String dtTxt ? dtTxt : null,
+                Map::get, UnaryOperator.identity(), now));
+        return projected;
+    }
+
+    /**
+     * Items inside the window: the items themselves without fields, else one map per item with the selected fields.
+     *
+     * @param dtTxt  dt_txt of an item
+     * @param field  top level field of an item by name, taken by reference
+     * @param toTree map / list form of a field value whose nested fields are selected (identity when already maps)
+     */
+    public <T> List<Object> apply(List<T> items, Function<T, String> dtTxt, BiFunction<T, String, Object> field,
+                                  UnaryOperator<Object> toTree, Instant now) {
+        if (isIdentity()) {
+            return Collections.unmodifiableList(items);
+        }
+        String lower = lowerBound(now);
+        String upper = upperBound(now);
+
+        List<Object> kept = new ArrayList<>();
+        for (T item : items) {
+            String dt = dtTxt.apply(item);
+            if (!inWindow(dt, lower, upper)) continue;
+            kept.add(fields == null ? item : project(item, dt, field, toTree));
+        }
+        return kept;
+    }
+
+    /**
+     * ETag of the projected representation: the full ETag with a variant suffix (fields + resolved window).
+     */
+    public String etag(String fullEtag, Instant now) {
+        if (isIdentity() || fullEtag == null) {
+            return fullEtag;
+        }
+        return fullEtag.substring(0, fullEtag.length() - 1) + "-" + variant(now) + "\"";
+    }
+
+    /**
+     * A window relative to now changes at the next slot boundary, it is not older than the slot start.
+     */
+    public long lastModified(long fullLastModified, Instant now) {
+        return isRelative() ? Math.max(fullLastModified, slotStart(now)) : fullLastModified;
+    }
+
+    /**
+     * A window relative to now must not be cached past the next slot boundary.
+     */
+    public long maxAgeSeconds(long fullMaxAgeSeconds, Instant now) {
+        if (!isRelative()) {
+            return fullMaxAgeSeconds;
+        }
+        long untilNextSlot = TimeUnit.MILLISECONDS.toSeconds(slotStart(now) + SLOT_MILLIS - now.toEpochMilli());
+        return Math.min(fullMaxAgeSeconds, untilNextSlot);
+    }
+
+    /**
+     * Short hash of the fields and the resolved window, identical on every replica.
+     */
+    String variant(Instant now) {
+        CRC32 crc = new CRC32();
+        crc.update((fields + "|" + lowerBound(now) + "|" + upperBound(now)).getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private <T> Map<String, Object> project(T item, String dtTxt, BiFunction<T, String, Object> field, UnaryOperator<Object> toTree) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        projected.put(DT_TXT, dtTxt);
+        fields.forEach((name, nested) -> {
+            Object value = field.apply(item, name);
+            if (value != null) {
+                projected.put(name, nested.isEmpty() ? value : select(toTree.apply(value), nested));
+            }
+        });
+        return projected;
+    }
+
+    /**
+     * Nested fields of an object, or of every object of a list (weather is a list).
+     */
+    private static Object select(Object value, Set<String> nested) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> selected = new LinkedHashMap<>();
+            for (String field : nested) {
+                if (map.containsKey(field)) selected.put(field, map.get(field));
+            }
+            return selected;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> selected = new ArrayList<>(list.size());
+            for (Object element : list) {
+                selected.add(select(element, nested));
+            }
+            return selected;
+        }
+        return value;
+    }
+
+    private static boolean inWindow(String dtTxt, String lower, String upper) {
+        if (lower == null && upper == null) return true;
+        if (dtTxt == null) return false;
+        return (lower == null || dtTxt.compareTo(lower) >= 0) && (upper == null || dtTxt.compareTo(upper) < 0);
+    }
+
+    private boolean isRelative() {
+        return hours > 0 && from == null;
+    }
+
+    private String lowerBound(Instant now) {
+        if (from != null) return DT_TXT_FORMAT.format(from);
+        return isRelative() ? DT_TXT_FORMAT.format(Instant.ofEpochMilli(slotStart(now))) : null;
+    }
+
+    private String upperBound(Instant now) {
+        if (to != null) return DT_TXT_FORMAT.format(to);
+        if (hours <= 0) return null;
+        long start = from != null ? from.toEpochMilli() : slotStart(now);
+        return DT_TXT_FORMAT.format(Instant.ofEpochMilli(start + TimeUnit.HOURS.toMillis(hours)));
+    }
+
+    /**
+     * Start of the 3-hour forecast slot containing now, slots are aligned to 00:00 UTC.
+     */
+    private static long slotStart(Instant now) {
+        return now.toEpochMilli() / SLOT_MILLIS * SLOT_MILLIS;
+    }
+
+    private static Map<String, Set<String>> parseFields(String fields) {
+        if (isBlank(fields)) return null;
+        Map<String, Set<String>> parsed = new LinkedHashMap<>();
+        for (String path : fields.split(",")) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) continue;
+            int dot = trimmed.indexOf('.');
+            String field = dot < 0 ? trimmed : trimmed.substring(0, dot);
+            if (!ITEM_FIELDS.contains(field)) {
+                throw new InvalidProjectionException("Unknown field: " + trimmed + ", expected one of " + ITEM_FIELDS);
+            }
+            if (field.equals(DT_TXT)) continue; // always kept
+            if (dot < 0) {
+                parsed.put(field, Set.of()); // whole value wins over nested fields
+                continue;
+            }
+            Set<String> nested = parsed.get(field);
+            if (nested == null) {
+                nested = new LinkedHashSet<>();
+                parsed.put(field, nested);
+            } else if (nested.isEmpty()) {
+                continue; // whole value already selected
+            }
+            nested.add(trimmed.substring(dot + 1));
+        }
+        return parsed;
+    }
+
+    /**
+     * 2025-10-18, 2025-10-18T12:00[:00] (UTC) or 2025-10-18T12:00:00Z / +05:30.
+     */
+    private static Instant parseInstant(String name, String value) {
+        if (isBlank(value)) return null;
+        String trimmed = value.trim();
+        try {
+            if (trimmed.length() == 10) {
+                return LocalDate.parse(trimmed).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            if (trimmed.endsWith("Z") || trimmed.lastIndexOf('+') > 0 || trimmed.lastIndexOf('-') > 9) {
+                return DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(trimmed, Instant::from);
+            }
+            return LocalDateTime.parse(trimmed).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidProjectionException(name + " must be an ISO date, date-time or instant, e.g. 2025-10-18T12:00:00Z");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
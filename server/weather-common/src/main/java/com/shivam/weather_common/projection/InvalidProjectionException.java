@@ -0,0 +1,10 @@
+package com.shivam.weather_common.projection;
+
+/**
+ * Invalid projection / time-window query parameter, answered with 400 by both services.
+ */
+public class InvalidProjectionException extends IllegalArgumentException {
+    public InvalidProjectionException(String message) {
+        super(message);
+    }
+}
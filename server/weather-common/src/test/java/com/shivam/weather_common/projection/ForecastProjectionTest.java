@@ -0,0 +1,237 @@
+package com.shivam.weather_common.projection;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForecastProjectionTest {
+
+    private static final Instant NOW = Instant.parse("2025-10-18T10:30:00Z");
+
+    @Test
+    void blankParametersAreIdentity() {
+        assertSame(ForecastProjection.NONE, ForecastProjection.of(null, null, null, null));
+        assertSame(ForecastProjection.NONE, ForecastProjection.of(" ", "", " ", null));
+
+        Map<String, Object> response = response(item("2025-10-18 09:00:00"));
+        assertSame(response, ForecastProjection.NONE.apply(response, NOW));
+        assertEquals("\"abc\"", ForecastProjection.NONE.etag("\"abc\"", NOW));
+    }
+
+    @Test
+    void rejectsNonPositiveHours() {
+        assertMessage("hours must be greater than 0", () -> ForecastProjection.of(null, null, null, 0));
+        assertMessage("hours must be greater than 0", () -> ForecastProjection.of(null, null, null, -3));
+    }
+
+    @Test
+    void rejectsHoursWithTo() {
+        assertMessage("Use either hours or to, not both",
+                () -> ForecastProjection.of(null, "2025-10-18", "2025-10-19", 6));
+    }
+
+    @Test
+    void rejectsFromNotBeforeTo() {
+        assertMessage("from must be before to", () -> ForecastProjection.of(null, "2025-10-19", "2025-10-18", null));
+        assertMessage("from must be before to", () -> ForecastProjection.of(null, "2025-10-18", "2025-10-18", null));
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        assertMessage("Unknown field: humidity, expected one of [dt_txt, main, weather, wind, predictions]",
+                () -> ForecastProjection.of("main,humidity", null, null, null));
+        assertMessage("Unknown field: clouds.all, expected one of [dt_txt, main, weather, wind, predictions]",
+                () -> ForecastProjection.of("clouds.all", null, null, null));
+    }
+
+    @Test
+    void rejectsUnparsableDates() {
+        assertMessage("from must be an ISO date, date-time or instant, e.g. 2025-10-18T12:00:00Z",
+                () -> ForecastProjection.of(null, "18/10/2025", null, null));
+        assertMessage("to must be an ISO date, date-time or instant, e.g. 2025-10-18T12:00:00Z",
+                () -> ForecastProjection.of(null, null, "2025-10-18T25:00", null));
+    }
+
+    @Test
+    void parsesDatesDateTimesAndInstants() {
+        List<Object> items = List.of(item("2025-10-18 00:00:00"), item("2025-10-18 06:00:00"), item("2025-10-18 12:00:00"));
+
+        assertEquals(List.of("2025-10-18 06:00:00", "2025-10-18 12:00:00"), dtTxts(window("2025-10-18T06:00", null), items));
+        assertEquals(List.of("2025-10-18 06:00:00", "2025-10-18 12:00:00"), dtTxts(window("2025-10-18T06:00:00Z", null), items));
+        // 11:30+05:30 = 06:00 UTC
+        assertEquals(List.of("2025-10-18 06:00:00", "2025-10-18 12:00:00"), dtTxts(window("2025-10-18T11:30:00+05:30", null), items));
+        assertEquals(List.of("2025-10-18 00:00:00", "2025-10-18 06:00:00", "2025-10-18 12:00:00"),
+                dtTxts(window("2025-10-18", null), items));
+    }
+
+    @Test
+    void toIsExclusive() {
+        List<Object> items = List.of(item("2025-10-18 06:00:00"), item("2025-10-18 09:00:00"), item("2025-10-18 12:00:00"));
+
+        assertEquals(List.of("2025-10-18 06:00:00", "2025-10-18 09:00:00"),
+                dtTxts(window("2025-10-18T06:00:00Z", "2025-10-18T12:00:00Z"), items));
+    }
+
+    @Test
+    void hoursCountFromFrom() {
+        List<Object> items = List.of(item("2025-10-18 21:00:00"), item("2025-10-19 00:00:00"),
+                item("2025-10-19 03:00:00"), item("2025-10-19 06:00:00"));
+        ForecastProjection projection = ForecastProjection.of(null, "2025-10-19", null, 6);
+
+        assertEquals(List.of("2025-10-19 00:00:00", "2025-10-19 03:00:00"), dtTxts(projection, items));
+    }
+
+    @Test
+    void relativeHoursStartAtTheCurrentSlot() {
+        List<Object> items = List.of(item("2025-10-18 06:00:00"), item("2025-10-18 09:00:00"),
+                item("2025-10-18 12:00:00"), item("2025-10-18 15:00:00"));
+        ForecastProjection projection = ForecastProjection.of(null, null, null, 6);
+
+        // 10:30 is in the 09:00 slot
+        assertEquals(List.of("2025-10-18 09:00:00", "2025-10-18 12:00:00"), dtTxts(projection, items, NOW));
+    }
+
+    @Test
+    void slotBoundaries() {
+        List<Object> items = List.of(item("2025-10-18 00:00:00"), item("2025-10-18 03:00:00"), item("2025-10-18 06:00:00"));
+        ForecastProjection projection = ForecastProjection.of(null, null, null, 3);
+
+        assertEquals(List.of("2025-10-18 00:00:00"), dtTxts(projection, items, Instant.parse("2025-10-18T02:59:59Z")));
+        assertEquals(List.of("2025-10-18 03:00:00"), dtTxts(projection, items, Instant.parse("2025-10-18T03:00:00Z")));
+    }
+
+    @Test
+    void relativeWindowBoundsValidators() {
+        ForecastProjection projection = ForecastProjection.of(null, null, null, 6);
+        long slotStart = Instant.parse("2025-10-18T09:00:00Z").toEpochMilli();
+
+        // 10:30 → next slot at 12:00
+        assertEquals(5400, projection.maxAgeSeconds(86400, NOW));
+        assertEquals(60, projection.maxAgeSeconds(60, NOW));
+        assertEquals(slotStart, projection.lastModified(slotStart - 1000, NOW));
+        assertEquals(slotStart + 1000, projection.lastModified(slotStart + 1000, NOW));
+
+        ForecastProjection absolute = ForecastProjection.of(null, "2025-10-18", null, 6);
+        assertEquals(86400, absolute.maxAgeSeconds(86400, NOW));
+        assertEquals(slotStart - 1000, absolute.lastModified(slotStart - 1000, NOW));
+    }
+
+    @Test
+    void etagVariesWithFieldsAndWindow() {
+        ForecastProjection main = ForecastProjection.of("main", null, null, null);
+        String etag = main.etag("\"abc\"", NOW);
+
+        assertTrue(etag.startsWith("\"abc-") && etag.endsWith("\""));
+        assertEquals(etag, ForecastProjection.of(" main ", null, null, null).etag("\"abc\"", NOW));
+        assertNotEquals(etag, ForecastProjection.of("wind", null, null, null).etag("\"abc\"", NOW));
+
+        ForecastProjection relative = ForecastProjection.of(null, null, null, 6);
+        assertEquals(relative.etag("\"abc\"", NOW), relative.etag("\"abc\"", Instant.parse("2025-10-18T11:59:59Z")));
+        assertNotEquals(relative.etag("\"abc\"", NOW), relative.etag("\"abc\"", Instant.parse("2025-10-18T12:00:00Z")));
+    }
+
+    @Test
+    void selectsNestedFieldsOfObjectsAndLists() {
+        Map<String, Object> response = response(item("2025-10-18 09:00:00"));
+        ForecastProjection projection = ForecastProjection.of("main.temp,weather.icon", null, null, null);
+
+        Map<?, ?> projected = (Map<?, ?>) ((List<?>) projection.apply(response, NOW).get("data")).get(0);
+
+        assertEquals(Map.of("dt_txt", "2025-10-18 09:00:00", "main", Map.of("temp", 12.5),
+                "weather", List.of(Map.of("icon", "01d"), Map.of("icon", "02d"))), projected);
+    }
+
+    @Test
+    void wholeValueWinsOverNestedFields() {
+        Map<String, Object> item = item("2025-10-18 09:00:00");
+        Map<String, Object> response = response(item);
+
+        for (String fields : List.of("main.temp,main", "main,main.temp")) {
+            Map<?, ?> projected = (Map<?, ?>) ((List<?>) ForecastProjection.of(fields, null, null, null)
+                    .apply(response, NOW).get("data")).get(0);
+            assertSame(item.get("main"), projected.get("main"));
+        }
+    }
+
+    @Test
+    void dtTxtIsAlwaysKept() {
+        Map<?, ?> projected = (Map<?, ?>) ((List<?>) ForecastProjection.of("dt_txt,wind", null, null, null)
+                .apply(response(item("2025-10-18 09:00:00")), NOW).get("data")).get(0);
+
+        assertEquals(List.of("dt_txt", "wind"), new ArrayList<>(projected.keySet()));
+    }
+
+    @Test
+    void doesNotModifyTheResponse() {
+        Map<String, Object> item = item("2025-10-18 09:00:00");
+        Map<String, Object> response = response(item, item("2025-10-18 12:00:00"));
+        String before = response.toString();
+
+        Map<String, Object> projected = ForecastProjection.of("main.temp", "2025-10-18T10:00", null, null).apply(response, NOW);
+
+        assertEquals(before, response.toString());
+        assertEquals(true, projected.get("success"));
+        assertEquals(1, ((List<?>) projected.get("data")).size());
+    }
+
+    @Test
+    void appliesToTypedItems() {
+        record Item(String dtTxt, String wind) {}
+        List<Item> items = List.of(new Item("2025-10-18 09:00:00", "w1"), new Item("2025-10-18 12:00:00", "w2"));
+        ForecastProjection projection = ForecastProjection.of("wind", "2025-10-18T12:00:00Z", null, null);
+
+        List<Object> projected = projection.apply(items, Item::dtTxt,
+                (item, field) -> field.equals("wind") ? item.wind() : null, value -> value, NOW);
+
+        assertEquals(List.of(Map.of("dt_txt", "2025-10-18 12:00:00", "wind", "w2")), projected);
+        assertEquals(items, ForecastProjection.NONE.apply(items, Item::dtTxt, (item, field) -> null, value -> value, NOW));
+    }
+
+    private static ForecastProjection window(String from, String to) {
+        return ForecastProjection.of(null, from, to, null);
+    }
+
+    private static List<?> dtTxts(ForecastProjection projection, List<Object> items) {
+        return dtTxts(projection, items, NOW);
+    }
+
+    private static List<?> dtTxts(ForecastProjection projection, List<Object> items, Instant now) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("data", items);
+        return ((List<?>) projection.apply(response, now).get("data")).stream()
+                .map(item -> ((Map<?, ?>) item).get("dt_txt"))
+                .toList();
+    }
+
+    private static Map<String, Object> response(Object... items) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "ok");
+        response.put("data", List.of(items));
+        return response;
+    }
+
+    private static Map<String, Object> item(String dtTxt) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("dt_txt", dtTxt);
+        item.put("main", new LinkedHashMap<>(Map.of("temp", 12.5, "humidity", 80)));
+        item.put("weather", List.of(Map.of("icon", "01d", "main", "Clear"), Map.of("icon", "02d", "main", "Clouds")));
+        item.put("wind", Map.of("speed", 3.1));
+        return item;
+    }
+
+    private static void assertMessage(String message, Runnable call) {
+        InvalidProjectionException ex = assertThrows(InvalidProjectionException.class, call::run);
+        assertEquals(message, ex.getMessage());
+    }
+}
@@ -0,0 +1,98 @@
+package com.shivam.weather_svc.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Upstream (OpenWeather) HTTP client.
+ * - Enforced connect / read timeouts and a bounded wait for a pooled connection,
+ *   so a slow upstream fails the call instead of pinning request threads.
+ * - Keep-alive pool, connections are recycled after a max lifetime to pick up DNS changes.
+ */
+@Configuration
+@Slf4j
+public class AppConfig {
+
+    @Value("${rest_template_connect_timeout}")
+    private int connectTimeout;
+    @Value("${rest_template_read_timeout}")
+    private int readTimeout;
+
+    @Value("${http_client.max_total}")
+    private int maxTotal;
+    @Value("${http_client.max_per_route}")
+    private int maxPerRoute;
+    @Value("${http_client.connection_request_timeout}")
+    private long connectionRequestTimeout;
+    @Value("${http_client.idle_evict_seconds}")
+    private long idleEvictSeconds;
+    @Value("${http_client.connection_ttl_seconds}")
+    private long connectionTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager weatherApiConnectionManager() {
+        log.info("Weather API connection pool → maxTotal={}, maxPerRoute={}, connectTimeout={}ms, readTimeout={}ms",
+                maxTotal, maxPerRoute, connectTimeout, readTimeout);
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient weatherApiHttpClient(PoolingHttpClientConnectionManager weatherApiConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(weatherApiConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+    }
+
+    /**
+     * Pool gauges (leased / available / pending / max), tagged httpclient=openweather.
+     */
+    @Bean
+    public MeterBinder weatherApiPoolMetrics(PoolingHttpClientConnectionManager weatherApiConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(weatherApiConnectionManager, "openweather");
+    }
+
+    /**
+     * Built from the Boot RestTemplateBuilder so every call is recorded as http.client.requests (latency per uri template / status).
+     */
+    @Bean
+    public RestTemplate weatherApiRestTemplate(RestTemplateBuilder builder, CloseableHttpClient weatherApiHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(weatherApiHttpClient))
+                .build();
+    }
+}
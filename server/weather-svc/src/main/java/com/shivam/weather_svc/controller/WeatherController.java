@@ -1,11 +1,14 @@
 package com.shivam.weather_svc.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shivam.weather_svc.dto.CustomResponse;
 import com.shivam.weather_svc.dto.ForecastItemDTO;
 import com.shivam.weather_svc.utils.SlidingWindowRateLimiter;
 import com.shivam.weather_svc.service.WeatherService;
 import com.shivam.weather_svc.utils.AppConstants;
+import com.shivam.weather_common.projection.ForecastProjection;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -30,21 +34,27 @@ public class WeatherController {
 
     private final WeatherService WeatherService;
     private final SlidingWindowRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
 
-    public WeatherController(WeatherService WeatherService, SlidingWindowRateLimiter rateLimiter) {
+    public WeatherController(WeatherService WeatherService, SlidingWindowRateLimiter rateLimiter, ObjectMapper objectMapper) {
         this.WeatherService = WeatherService;
         this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Retrieves 3-hour weather forecast for a specific city.
      *
-     * @param city the name of the city
+     * @param city   the name of the city
+     * @param fields optional item fields to return, dotted for nested ones
+     * @param from   optional window start
+     * @param to     optional window end (exclusive)
+     * @param hours  optional window length in hours
      * @return standardized API response containing the forecast list
      */
     @Operation(
             summary = "Get 3-hour weather forecast for a city",
-            description = "Fetches 3-hour weather forecast data for the specified city."
+            description = "Fetches 3-hour weather forecast data for the specified city. Optional fields / from / to / hours return only the selected item fields within the time window."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = AppConstants.Messages.FORECAST_SUCCESS,
@@ -58,13 +68,23 @@ public class WeatherController {
             @ApiResponse(responseCode = "500", description = AppConstants.Messages.INTERNAL_SERVER_ERROR, content = @Content)
     })
     @GetMapping("/forecast")
-    public ResponseEntity<CustomResponse<List<ForecastItemDTO>>> getForecast(@RequestParam String city) {
+    public ResponseEntity<CustomResponse<List<?>>> getForecast(@RequestParam String city,
+                                                               @Parameter(description = "Comma separated item fields, dotted for nested ones, e.g. main.temp,weather.icon,wind.speed (dt_txt is always returned)")
+                                                               @RequestParam(required = false) String fields,
+                                                               @Parameter(description = "Window start: ISO date, date-time (UTC) or instant")
+                                                               @RequestParam(required = false) String from,
+                                                               @Parameter(description = "Window end (exclusive): ISO date, date-time (UTC) or instant")
+                                                               @RequestParam(required = false) String to,
+                                                               @Parameter(description = "Window length in hours, from 'from' or else from the current 3-hour slot")
+                                                               @RequestParam(required = false) Integer hours) {
         log.info("Incoming request for weather forecast: city={}", city);
         city = URLDecoder.decode(city, StandardCharsets.UTF_8);
 
         if (city == null || city.trim().isEmpty()) {
             throw new IllegalArgumentException("City name cannot be empty.");
         }
+        // Validated before the rate limiter, a bad request does not use up a token
+        ForecastProjection projection = ForecastProjection.of(fields, from, to, hours);
 
         // Rate limiting
         if (!rateLimiter.tryConsume()) {
@@ -82,8 +102,11 @@ public class WeatherController {
         }
 
         log.info("Forecast retrieved successfully for city: {}", city);
+        // Nested fields are selected from the map form of the DTOs
+        List<?> items = projection.apply(forecast, ForecastItemDTO::getDt_txt, ForecastItemDTO::field,
+                value -> objectMapper.convertValue(value, Object.class), Instant.now());
         return ResponseEntity.ok(
-                new CustomResponse<>(true, AppConstants.Messages.FORECAST_SUCCESS, forecast)
+                new CustomResponse<>(true, AppConstants.Messages.FORECAST_SUCCESS, items)
         );
     }
 }
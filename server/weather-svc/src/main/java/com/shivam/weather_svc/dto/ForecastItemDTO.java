@@ -16,4 +16,17 @@ public class ForecastItemDTO {
 
     //predictions per forecast item
     private List<String> predictions;
+
+    /**
+     * Item field by its JSON name (fields projection), null for an unknown one.
+     */
+    public Object field(String name) {
+        return switch (name) {
+            case "main" -> main;
+            case "weather" -> weather;
+            case "wind" -> wind;
+            case "predictions" -> predictions;
+            default -> null;
+        };
+    }
 }
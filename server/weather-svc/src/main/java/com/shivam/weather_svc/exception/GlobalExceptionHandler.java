@@ -36,6 +36,15 @@ public class GlobalExceptionHandler {
                 .body(new CustomResponse<>(false, message, null));
     }
 
+    @ExceptionHandler(org.springframework.web.method.annotation.MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<CustomResponse<Object>> handleTypeMismatch(
+            org.springframework.web.method.annotation.MethodArgumentTypeMismatchException ex) {
+        log.warn("Invalid value for parameter {}: {}", ex.getName(), ex.getValue());
+        String message = "Invalid value for query parameter: " + ex.getName();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new CustomResponse<>(false, message, null));
+    }
+
     @ExceptionHandler(org.springframework.web.servlet.NoHandlerFoundException.class)
     public ResponseEntity<CustomResponse<Object>> handleNoHandlerFound(
             org.springframework.web.servlet.NoHandlerFoundException ex) {
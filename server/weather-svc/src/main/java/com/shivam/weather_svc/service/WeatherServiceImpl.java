@@ -13,7 +13,7 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
-import java.net.SocketTimeoutException;
+import java.io.InterruptedIOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -33,10 +33,11 @@ public class WeatherServiceImpl implements WeatherService {
     @Value("${weather.api.units}")
     private String units;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final WeatherPrediction predictionService;
 
-    public WeatherServiceImpl(WeatherPrediction predictionService) {
+    public WeatherServiceImpl(RestTemplate weatherApiRestTemplate, WeatherPrediction predictionService) {
+        this.restTemplate = weatherApiRestTemplate;
         this.predictionService = predictionService;
     }
 
@@ -47,10 +48,11 @@ public class WeatherServiceImpl implements WeatherService {
             }
 
             log.info("Fetching weather data for city: {}", cityName);
-            String url = String.format("%s?q=%s&cnt=%s&units=%s&appid=%s",
-                    apiUrl, cityName.trim(), cnt, units, apiKey);
+            // URI template: values are encoded and the metrics uri tag never contains the city or the API key
+            String urlTemplate = apiUrl + "?q={city}&cnt={cnt}&units={units}&appid={appid}";
 
-            ForecastResponseDTO response = restTemplate.getForObject(url, ForecastResponseDTO.class);
+            ForecastResponseDTO response = restTemplate.getForObject(urlTemplate, ForecastResponseDTO.class,
+                    cityName.trim(), cnt, units, apiKey);
 
             if (response == null || response.getList() == null) {
                 log.warn("Empty or null response received from weather API for city: {}", cityName);
@@ -80,7 +82,8 @@ public class WeatherServiceImpl implements WeatherService {
             throw new ExternalApiException("Weather API returned an error: " + errorBody, status);
 
         } catch (ResourceAccessException e) {
-            if (e.getCause() instanceof SocketTimeoutException) {
+            // Read, connect and pool lease timeouts all surface as InterruptedIOException subtypes
+            if (e.getCause() instanceof InterruptedIOException) {
                 log.error("Weather API request timed out for city: {}", cityName);
                 throw new ExternalApiException("Weather service timed out. Please try again later.", HttpStatus.GATEWAY_TIMEOUT);
             }
@@ -1,5 +1,8 @@
 package com.shivam.weather_svc.utils;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -11,6 +14,7 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 /**
  * Thread-safe sliding window rate limiter.
  * Supports high concurrency for single-instance Spring Boot applications.
+ * Decisions are counted as rate_limiter.requests{result=accepted|rejected}, rate_limiter.window.used shows the current window.
  */
 @Service
 @Slf4j
@@ -24,6 +28,21 @@ public class SlidingWindowRateLimiter {
     // Thread-safe deque to store timestamps of requests
     private final Deque<Long> requestTimestamps = new ConcurrentLinkedDeque<>();
 
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public SlidingWindowRateLimiter(MeterRegistry registry) {
+        this.accepted = Counter.builder("rate_limiter.requests").tag("result", "accepted")
+                .description("Requests let through by the sliding window rate limiter")
+                .register(registry);
+        this.rejected = Counter.builder("rate_limiter.requests").tag("result", "rejected")
+                .description("Requests rejected by the sliding window rate limiter (429)")
+                .register(registry);
+        Gauge.builder("rate_limiter.window.used", requestTimestamps, Deque::size)
+                .description("Requests counted in the current window")
+                .register(registry);
+    }
+
     /**
      * Attempt to consume a request slot.
      *
@@ -39,8 +58,10 @@ public class SlidingWindowRateLimiter {
 
         if (requestTimestamps.size() < maxRequestsPerMinute) {
             requestTimestamps.addLast(now);
+            accepted.increment();
             return true;
         } else {
+            rejected.increment();
             return false;
         }
     }
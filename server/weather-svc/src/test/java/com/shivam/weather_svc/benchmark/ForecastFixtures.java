@@ -0,0 +1,97 @@
+package com.shivam.weather_svc.benchmark;
+
+import com.shivam.weather_svc.dto.CityDTO;
+import com.shivam.weather_svc.dto.CoordDTO;
+import com.shivam.weather_svc.dto.ForecastItemDTO;
+import com.shivam.weather_svc.dto.ForecastResponseDTO;
+import com.shivam.weather_svc.dto.MainDTO;
+import com.shivam.weather_svc.dto.WeatherDTO;
+import com.shivam.weather_svc.dto.WindDTO;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * OpenWeather-like forecast data for the benchmarks, seeded so every run sees the same mix of
+ * clear / rain / storm items, hot days and windy slots.
+ */
+final class ForecastFixtures {
+
+    private static final String[][] CONDITIONS = {
+            {"800", "Clear", "clear sky", "01d"},
+            {"803", "Clouds", "broken clouds", "04d"},
+            {"500", "Rain", "light rain", "10d"},
+            {"211", "Thunderstorm", "thunderstorm", "11d"},
+            {"600", "Snow", "light snow", "13d"}
+    };
+    private static final DateTimeFormatter DT_TXT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private ForecastFixtures() {
+    }
+
+    /**
+     * {@code count} 3-hour items, 8 = the default API_CNT (one day), 40 = the full 5 day forecast.
+     */
+    static List<ForecastItemDTO> items(int count) {
+        Random random = new Random(42);
+        LocalDateTime slot = LocalDateTime.of(2025, 7, 1, 0, 0);
+        List<ForecastItemDTO> items = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            MainDTO main = new MainDTO();
+            main.setTemp(15 + random.nextDouble() * 30);
+            main.setFeels_like(main.getTemp() + random.nextDouble() * 3);
+            main.setTemp_min(main.getTemp() - random.nextDouble() * 2);
+            main.setTemp_max(main.getTemp() + random.nextDouble() * 2);
+            main.setPressure(1000 + random.nextInt(25));
+            main.setSea_level(main.getPressure());
+            main.setGrnd_level(main.getPressure() - 40);
+            main.setHumidity(30 + random.nextInt(60));
+
+            List<WeatherDTO> weather = new ArrayList<>(2);
+            for (int w = 0; w < 1 + random.nextInt(2); w++) {
+                String[] condition = CONDITIONS[random.nextInt(CONDITIONS.length)];
+                WeatherDTO dto = new WeatherDTO();
+                dto.setId(Integer.parseInt(condition[0]));
+                dto.setMain(condition[1]);
+                dto.setDescription(condition[2]);
+                dto.setIcon(condition[3]);
+                weather.add(dto);
+            }
+
+            WindDTO wind = new WindDTO();
+            wind.setSpeed(random.nextDouble() * 15);
+            wind.setDeg(random.nextInt(360));
+            wind.setGust(wind.getSpeed() * 1.5);
+
+            ForecastItemDTO item = new ForecastItemDTO();
+            item.setDt_txt(slot.plusHours(3L * i).format(DT_TXT));
+            item.setMain(main);
+            item.setWeather(weather);
+            item.setWind(wind);
+            items.add(item);
+        }
+        return items;
+    }
+
+    static ForecastResponseDTO response(int count) {
+        CoordDTO coord = new CoordDTO();
+        coord.setLat(22.7196);
+        coord.setLon(75.8577);
+
+        CityDTO city = new CityDTO();
+        city.setId(1269743);
+        city.setName("Indore");
+        city.setCoord(coord);
+        city.setCountry("IN");
+        city.setPopulation(1837041);
+        city.setTimezone(19800);
+        city.setSunrise(1751328000L);
+        city.setSunset(1751376000L);
+
+        return new ForecastResponseDTO("200", 0, count, items(count), city);
+    }
+}
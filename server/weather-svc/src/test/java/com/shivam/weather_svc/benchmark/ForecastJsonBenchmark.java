@@ -0,0 +1,55 @@
+package com.shivam.weather_svc.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.weather_svc.dto.ForecastResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the OpenWeather response, with the mapper configuration of the RestTemplate converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForecastJsonBenchmark {
+
+    @Param({"8", "40"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private ForecastResponseDTO response;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = ForecastFixtures.response(items);
+        json = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ForecastResponseDTO deserialize() throws IOException {
+        return objectMapper.readValue(json, ForecastResponseDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
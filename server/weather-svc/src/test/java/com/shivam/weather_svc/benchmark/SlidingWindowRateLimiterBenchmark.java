@@ -0,0 +1,57 @@
+package com.shivam.weather_svc.benchmark;
+
+import com.shivam.weather_svc.utils.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SlidingWindowRateLimiter#tryConsume()} alone and under contention (one shared limiter).
+ * - 60/min: the window fills right away, measures the reject path (the common case under overload).
+ * - 100000/min: mostly accepts, the window holds many timestamps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlidingWindowRateLimiterBenchmark {
+
+    @Param({"60", "100000"})
+    private int maxRequestsPerMinute;
+
+    private SlidingWindowRateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        limiter = new SlidingWindowRateLimiter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "maxRequestsPerMinute", maxRequestsPerMinute);
+        ReflectionTestUtils.setField(limiter, "windowSizeSeconds", 60L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean tryConsume() {
+        return limiter.tryConsume();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean tryConsumeContended() {
+        return limiter.tryConsume();
+    }
+}
@@ -0,0 +1,49 @@
+package com.shivam.weather_svc.benchmark;
+
+import com.shivam.weather_svc.dto.ForecastItemDTO;
+import com.shivam.weather_svc.utils.WeatherPrediction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WeatherPrediction#generatePredictions} over a whole forecast list, as done for every OpenWeather response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherPredictionBenchmark {
+
+    @Param({"8", "40"})
+    private int items;
+
+    private final WeatherPrediction prediction = new WeatherPrediction();
+    private List<ForecastItemDTO> forecast;
+
+    @Setup
+    public void setUp() {
+        forecast = ForecastFixtures.items(items);
+    }
+
+    @Benchmark
+    public void generatePredictions(Blackhole blackhole) {
+        for (ForecastItemDTO item : forecast) {
+            blackhole.consume(prediction.generatePredictions(item));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.shivam.weather_svc.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.weather_common.projection.ForecastProjection;
+import com.shivam.weather_common.projection.InvalidProjectionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ForecastItemProjectionTest {
+
+    private static final Instant NOW = Instant.parse("2025-10-18T10:30:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void selectsNestedFieldsOfTheDtos() {
+        ForecastItemDTO item = item("2025-10-18 09:00:00");
+
+        List<?> projected = apply(ForecastProjection.of("main.temp,weather.icon,wind", null, null, null), List.of(item));
+
+        assertEquals(1, projected.size());
+        Map<?, ?> first = assertInstanceOf(Map.class, projected.get(0));
+        assertEquals("2025-10-18 09:00:00", first.get("dt_txt"));
+        assertEquals(Map.of("temp", 12.5), first.get("main"));
+        assertEquals(List.of(Map.of("icon", "01d")), first.get("weather"));
+        assertSame(item.getWind(), first.get("wind"));
+    }
+
+    @Test
+    void windowWithoutFieldsKeepsTheDtos() {
+        ForecastItemDTO early = item("2025-10-18 06:00:00");
+        ForecastItemDTO late = item("2025-10-18 12:00:00");
+
+        List<?> projected = apply(ForecastProjection.of(null, "2025-10-18T09:00:00Z", null, null), List.of(early, late));
+
+        assertEquals(List.of(late), projected);
+        assertSame(late, projected.get(0));
+    }
+
+    @Test
+    void invalidParametersAreBadRequests() {
+        // Mapped to 400 by the IllegalArgumentException handler
+        InvalidProjectionException ex = assertThrows(InvalidProjectionException.class,
+                () -> ForecastProjection.of(null, "2025-10-18", "2025-10-19", 3));
+        assertInstanceOf(IllegalArgumentException.class, ex);
+    }
+
+    private List<?> apply(ForecastProjection projection, List<ForecastItemDTO> items) {
+        return projection.apply(items, ForecastItemDTO::getDt_txt, ForecastItemDTO::field,
+                value -> objectMapper.convertValue(value, Object.class), NOW);
+    }
+
+    private static ForecastItemDTO item(String dtTxt) {
+        MainDTO main = new MainDTO();
+        main.setTemp(12.5);
+        WeatherDTO weather = new WeatherDTO();
+        weather.setMain("Clear");
+        weather.setIcon("01d");
+        WindDTO wind = new WindDTO();
+        wind.setSpeed(3.1);
+
+        ForecastItemDTO item = new ForecastItemDTO();
+        item.setDt_txt(dtTxt);
+        item.setMain(main);
+        item.setWeather(List.of(weather));
+        item.setWind(wind);
+        return item;
+    }
+}